@@ -20,7 +20,7 @@ const LikeButton = ({
     const checkLikeStatus = async () => {
       if (isAuthenticated && user && postId) {
         try {
-          const hasLiked = await likeService.hasUserLiked(postId, user.id);
+          const hasLiked = await likeService.hasUserLiked(postId);
           setIsLiked(hasLiked);
         } catch (error) {
           console.error("Error checking like status:", error);
@@ -36,8 +36,8 @@ const LikeButton = ({
     const fetchLikeCount = async () => {
       if (postId) {
         try {
-          const response = await likeService.getPostLikes(postId);
-          setLikeCount(response.data.length);
+          const response = await likeService.getPostLikes(postId, null, 1);
+          setLikeCount(response.data.totalCount);
         } catch (error) {
           console.error("Error fetching like count:", error);
         }
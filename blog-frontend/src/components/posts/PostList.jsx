@@ -31,8 +31,8 @@ const PostList = ({ limit = 6, showFeatured = true }) => {
       const postsWithLikes = await Promise.all(
         response.data.map(async (post) => {
           try {
-            const likesResponse = await likeService.getPostLikes(post.id);
-            return { ...post, likesCount: likesResponse.data.length };
+            const likesResponse = await likeService.getPostLikes(post.id, null, 1);
+            return { ...post, likesCount: likesResponse.data.totalCount };
           } catch {
             return { ...post, likesCount: 0 };
           }
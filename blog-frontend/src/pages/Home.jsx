@@ -37,8 +37,8 @@ const Home = () => {
         const postsResponse = await postService.getAll(0, 200);
         const posts = await Promise.all(
           postsResponse.data.map(async (post) => {
-            const likesResponse = await likeService.getPostLikes(post.id);
-            return { ...post, likesCount: likesResponse.data.length };
+            const likesResponse = await likeService.getPostLikes(post.id, null, 1);
+            return { ...post, likesCount: likesResponse.data.totalCount };
           })
         );
 
@@ -9,14 +9,19 @@ export const likeService = {
   unlikePost: (postId, userId) =>
     api.delete(`/posts/${postId}/likes?userId=${userId}`),
 
-  // Get all users who liked a post
-  getPostLikes: (postId) => api.get(`/posts/${postId}/likes`),
+  // Get a page of users who liked a post ({ items, nextCursor, totalCount })
+  getPostLikes: (postId, cursor = null, size = 20) =>
+    api.get(`/posts/${postId}/likes`, {
+      params: cursor ? { cursor, size } : { size },
+    }),
 
-  // Check if user has liked a post (utility method)
-  hasUserLiked: async (postId, userId) => {
+  // Check if the current user has liked a post (utility method)
+  hasUserLiked: async (postId) => {
     try {
-      const response = await api.get(`/posts/${postId}/likes`);
-      return response.data.some((user) => user.id === userId);
+      const response = await api.post("/me/likes/status", {
+        postIds: [postId],
+      });
+      return response.data.likedPostIds.includes(Number(postId));
     } catch (error) {
       console.error("Error checking like status:", error);
       return false;
@@ -12,7 +12,6 @@ export const notificationService = {
   markAllAsRead: (userId) =>
     api.patch(`/users/${userId}/notifications/read-all`),
 
-  // Get unread count (if we implement this later) (can derive from notifications list in frontend)
-  getUnreadCount: (userId) =>
-    api.get(`/users/${userId}/notifications/unread-count`),
+  // Get the current user's unread count ({ unreadCount })
+  getUnreadCount: () => api.get("/me/notifications/unread-count"),
 };
@@ -0,0 +1,131 @@
+package com.example.welog.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import com.example.welog.dto.PostResponseDto;
+import com.example.welog.model.Comment;
+import com.example.welog.model.ERole;
+import com.example.welog.model.Post;
+import com.example.welog.model.Role;
+import com.example.welog.model.Tag;
+import com.example.welog.model.User;
+import com.example.welog.utils.ResponseDtoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * GET /api/v1/posts/{id} response body: Jackson on every request (object path) vs. copying the cached bytes.
+ * ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostResponseCacheBenchmark {
+    @Param({"5", "100"})
+    private int comments;
+
+    private ObjectMapper objectMapper;
+    private PostResponseDto post;
+    private PostResponseCache cache;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        post = ResponseDtoMapper.mapToPostResponseDto(samplePost(comments));
+        cache = new PostResponseCache(objectMapper, DataSize.ofMegabytes(64), Duration.ofMinutes(10), true);
+        cache.get(1L, () -> post);
+    }
+
+    @Benchmark
+    public void objectPath(Blackhole blackhole) throws IOException {
+        objectMapper.writeValue(new DiscardingOutputStream(blackhole), post);
+    }
+
+    @Benchmark
+    public void cachedJson(Blackhole blackhole) throws IOException {
+        new DiscardingOutputStream(blackhole).write(cache.get(1L, () -> post).getJson());
+    }
+
+    @Benchmark
+    public void cachedGzip(Blackhole blackhole) throws IOException {
+        new DiscardingOutputStream(blackhole).write(cache.get(1L, () -> post).getGzip());
+    }
+
+    private static Post samplePost(int commentCount) {
+        Role role = new Role(ERole.ROLE_USER);
+        User author = user(1L, role);
+
+        Post post = new Post("Benchmark post", "Lorem ipsum dolor sit amet. ".repeat(200), null, author);
+        post.setId(1L);
+        post.setCreatedAt(OffsetDateTime.now());
+        post.setUpdatedAt(OffsetDateTime.now());
+
+        Set<Tag> tags = new HashSet<>();
+        for (long i = 0; i < 5; i++) {
+            Tag tag = new Tag();
+            tag.setId(i);
+            tag.setName("tag-" + i);
+            tags.add(tag);
+        }
+        post.setTags(tags);
+
+        List<Comment> comments = new ArrayList<>();
+        for (long i = 0; i < commentCount; i++) {
+            Comment comment = new Comment("Comment body " + i, post, user(i + 2, role), null, 1);
+            comment.setId(i);
+            comment.setCreatedAt(OffsetDateTime.now());
+            comment.setUpdatedAt(OffsetDateTime.now());
+            comments.add(comment);
+        }
+        post.setComments(new HashSet<>(comments));
+        return post;
+    }
+
+    private static User user(long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    // Stands in for the servlet output stream
+    private static class DiscardingOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        DiscardingOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.welog.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.welog.dto.CacheStatsDto;
+import com.example.welog.dto.PostResponseDto;
+import com.example.welog.event.CommentChangedEvent;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.event.PostLikeCountsFlushedEvent;
+import com.example.welog.event.UserProfileChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read-through cache of assembled post details, bounded by size and TTL.
+ * Entries are evicted after commit of any change to the post, its comments, its likes, or the profile of its author
+ * or a commenter; the TTL bounds staleness for changes that bypass the services.
+ */
+@Component
+public class PostDetailCache {
+    private final Cache<Long, PostResponseDto> cache;
+
+    public PostDetailCache(@Value("${app.cache.post-detail.max-size:1000}") long maxSize,
+                           @Value("${app.cache.post-detail.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public PostResponseDto get(Long postId, Function<Long, PostResponseDto> loader) {
+        return cache.get(postId, loader);
+    }
+
+    public void evict(Long postId) {
+        cache.invalidate(postId);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // Evicts before PostResponseCache bumps its version (see there)
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        evict(event.getPostId());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        evict(event.getPostId());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        evict(event.getPostId());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        event.getPostIds().forEach(this::evict);
+    }
+
+    // Published by the scheduled flush, outside any transaction
+    @Order(0)
+    @EventListener
+    public void onPostLikeCountsFlushed(PostLikeCountsFlushedEvent event) {
+        event.getPostIds().forEach(this::evict);
+    }
+
+    public CacheStatsDto stats() {
+        return CacheStatsDto.from("post-detail", cache);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.welog.cache;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of post ids in the Roaring layout: an id is split into its high and low 16 bits, and each
+ * distinct high half owns a container for the low halves. A container is a sorted {@code char[]} while it is
+ * sparse and switches to a 65536-bit bitmap once it holds more than {@value #ARRAY_MAX} values (the point where
+ * the bitmap becomes the smaller of the two), and back again when it shrinks.
+ * <p>
+ * A user who liked a few hundred posts costs a few hundred bytes. Ids must fit in 32 bits (posts.id is an INT).
+ * Not thread-safe.
+ */
+final class PostIdBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    // Sorted high halves, with their containers at the same index
+    private char[] keys = new char[2];
+    private Container[] containers = new Container[2];
+    private int size;
+    private long cardinality;
+
+    static PostIdBitmap of(Iterable<Long> ids) {
+        PostIdBitmap bitmap = new PostIdBitmap();
+        ids.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    boolean contains(long id) {
+        if (!fits(id)) {
+            return false;
+        }
+        int index = indexOf(high(id));
+        return index >= 0 && containers[index].contains(low(id));
+    }
+
+    // True if the id was not already present
+    boolean add(long id) {
+        if (!fits(id)) {
+            throw new IllegalArgumentException("Post id does not fit in 32 bits: " + id);
+        }
+        char high = high(id);
+        int index = indexOf(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, high, new ArrayContainer());
+        }
+
+        Container container = containers[index];
+        if (!container.add(low(id))) {
+            return false;
+        }
+        if (container instanceof ArrayContainer array && array.cardinality > ARRAY_MAX) {
+            containers[index] = array.toBitmap();
+        }
+        cardinality++;
+        return true;
+    }
+
+    // True if the id was present
+    boolean remove(long id) {
+        if (!fits(id)) {
+            return false;
+        }
+        int index = indexOf(high(id));
+        if (index < 0) {
+            return false;
+        }
+
+        Container container = containers[index];
+        if (!container.remove(low(id))) {
+            return false;
+        }
+        if (container.cardinality() == 0) {
+            removeContainer(index);
+        } else if (container instanceof BitmapContainer bitmap && bitmap.cardinality <= ARRAY_MAX) {
+            containers[index] = bitmap.toArray();
+        }
+        cardinality--;
+        return true;
+    }
+
+    long cardinality() {
+        return cardinality;
+    }
+
+    private static boolean fits(long id) {
+        return id >= 0 && id <= 0xFFFFFFFFL;
+    }
+
+    private static char high(long id) {
+        return (char) (id >>> 16);
+    }
+
+    private static char low(long id) {
+        return (char) id;
+    }
+
+    private int indexOf(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertContainer(int index, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    private interface Container {
+        boolean contains(char value);
+
+        boolean add(char value);
+
+        boolean remove(char value);
+
+        int cardinality();
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int cardinality;
+
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        public boolean add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, cardinality * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return true;
+        }
+
+        public boolean remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        public int cardinality() {
+            return cardinality;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality;
+
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        public boolean add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            words[value >>> 6] = after;
+            if (before == after) {
+                return false;
+            }
+            cardinality++;
+            return true;
+        }
+
+        public boolean remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            words[value >>> 6] = after;
+            if (before == after) {
+                return false;
+            }
+            cardinality--;
+            return true;
+        }
+
+        public int cardinality() {
+            return cardinality;
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(4, cardinality)];
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    array.values[array.cardinality++] = (char) (word * 64 + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.welog.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.event.PostLikeCountsFlushedEvent;
+import com.example.welog.repository.PostRepository;
+
+/**
+ * Write-behind buffer for posts.like_count.
+ * <p>
+ * Likes and unlikes only add ±1 to an in-memory delta; a scheduled flush applies the accumulated deltas with
+ * one {@code UPDATE ... WHERE id IN (...)} per distinct delta, so a burst of likes on a popular post costs one
+ * row update instead of one per like. Like {@link java.util.concurrent.atomic.LongAdder}, the deltas are striped
+ * by thread so concurrent likers rarely contend on the same map segment; readers sum the stripes.
+ * <p>
+ * Readers that need the exact count add {@link #pending} to the stored column. Deltas taken by a flush stay
+ * visible through {@link #pending} until their UPDATE has committed, and go back into the buffer if it fails.
+ * Once committed they leave {@link #pending} and a {@link PostLikeCountsFlushedEvent} evicts the detail caches,
+ * which may have stored the column plus the same deltas while the UPDATE was committing.
+ * Deltas still buffered at shutdown are flushed on the way down; a crash loses at most one interval of counts.
+ */
+@Component
+public class PostLikeCounter {
+    private static final Logger logger = LoggerFactory.getLogger(PostLikeCounter.class);
+
+    // Bounds the IN list of one flush statement
+    private static final int MAX_IDS_PER_UPDATE = 1000;
+
+    private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrentHashMap<Long, Long>[] stripes;
+    private final int mask;
+    // Deltas taken by the running flush, not yet committed
+    private final ConcurrentHashMap<Long, Long> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PostLikeCounter(PostRepository postRepository, ApplicationEventPublisher eventPublisher) {
+        this(postRepository, eventPublisher, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    PostLikeCounter(PostRepository postRepository, ApplicationEventPublisher eventPublisher, int parallelism) {
+        this.postRepository = postRepository;
+        this.eventPublisher = eventPublisher;
+        int stripeCount = Integer.highestOneBit(Math.max(1, parallelism - 1)) << 1;
+        this.stripes = new ConcurrentHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    // Before the detail caches evict (order 0), so a reload right after eviction already sees this like
+    @Order(-1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        add(event.getPostId(), event.getType() == PostLikeChangedEvent.Type.LIKED ? 1 : -1);
+    }
+
+    public void add(long postId, long delta) {
+        stripes[(int) Thread.currentThread().threadId() & mask].merge(postId, delta, PostLikeCounter::sumOrNull);
+    }
+
+    /**
+     * Likes of the post not yet reflected in posts.like_count (may be negative).
+     */
+    public long pending(long postId) {
+        long sum = inFlight.getOrDefault(postId, 0L);
+        for (ConcurrentHashMap<Long, Long> stripe : stripes) {
+            sum += stripe.getOrDefault(postId, 0L);
+        }
+        return sum;
+    }
+
+    @PreDestroy
+    @Scheduled(initialDelayString = "${app.likes.flush-interval:1s}", fixedDelayString = "${app.likes.flush-interval:1s}")
+    public synchronized void flush() {
+        // remove() hands over exactly what was merged so far; later likes start a new entry
+        for (ConcurrentHashMap<Long, Long> stripe : stripes) {
+            for (Long postId : stripe.keySet()) {
+                Long delta = stripe.remove(postId);
+                if (delta != null) {
+                    inFlight.merge(postId, delta, PostLikeCounter::sumOrNull);
+                }
+            }
+        }
+        if (inFlight.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Long>> idsByDelta = new HashMap<>();
+        inFlight.forEach((postId, delta) -> idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(postId));
+
+        idsByDelta.forEach((delta, postIds) -> {
+            for (int from = 0; from < postIds.size(); from += MAX_IDS_PER_UPDATE) {
+                List<Long> batch = postIds.subList(from, Math.min(postIds.size(), from + MAX_IDS_PER_UPDATE));
+                boolean written;
+                try {
+                    postRepository.addLikeCounts(delta, batch);
+                    written = true;
+                } catch (RuntimeException e) {
+                    logger.warn("Could not flush like counts for {} posts, retrying next interval: {}", batch.size(), e.getMessage());
+                    batch.forEach(postId -> add(postId, delta));
+                    written = false;
+                }
+                batch.forEach(inFlight::remove);
+                if (written) {
+                    // Details cached between the commit and the removal above counted these deltas twice
+                    eventPublisher.publishEvent(new PostLikeCountsFlushedEvent(List.copyOf(batch)));
+                }
+            }
+        });
+    }
+
+    // A delta that nets out to zero leaves the map instead of flushing a no-op
+    private static Long sumOrNull(Long a, Long b) {
+        long sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.welog.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.example.welog.dto.CacheStatsDto;
+import com.example.welog.event.CommentChangedEvent;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.event.PostLikeCountsFlushedEvent;
+import com.example.welog.event.UserProfileChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Cache of post detail responses already serialized to JSON (and gzip), so a hit is copied to the
+ * response as-is without touching Jackson. Bounded by total bytes and TTL.
+ * <p>
+ * Keys are versioned: every post has a current version, bumped after commit of any change to the post,
+ * its comments, its likes, or the profile of its author or a commenter. A bumped post no longer matches its old entries, which age out on their own.
+ * Versions are drawn from one global clock, so a version that was evicted and re-created can never collide
+ * with an entry written under an earlier one.
+ */
+@Component
+public class PostResponseCache {
+    // Below this the gzip header and deflate overhead eat most of the saving
+    private static final int GZIP_MIN_BYTES = 512;
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final AtomicLong versionClock = new AtomicLong();
+    private final Cache<Long, Long> versions;
+    private final Cache<String, SerializedResponse> responses;
+
+    public PostResponseCache(ObjectMapper objectMapper,
+                             @Value("${app.cache.post-response.max-size:64MB}") DataSize maxSize,
+                             @Value("${app.cache.post-response.ttl:10m}") Duration ttl,
+                             @Value("${app.cache.post-response.gzip:true}") boolean gzipEnabled) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        // A version only has to outlive the entries written under it, which expire ttl after their last write
+        this.versions = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .build();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, SerializedResponse response) -> response.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the serialized response for the post's current version, serializing the loader's result on a miss.
+     * Exceptions thrown by the loader (e.g. ResourceNotFoundException) propagate and nothing is cached.
+     */
+    public SerializedResponse get(Long postId, Supplier<?> loader) {
+        long version = versions.get(postId, id -> versionClock.incrementAndGet());
+        return responses.get(postId + ":" + version, key -> serialize(loader.get()));
+    }
+
+    public void invalidate(Long postId) {
+        versions.put(postId, versionClock.incrementAndGet());
+    }
+
+    public void clear() {
+        versions.invalidateAll();
+        responses.invalidateAll();
+    }
+
+    // Runs after PostDetailCache has evicted, so a miss under the new version cannot re-serialize the stale detail
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(event.getPostId());
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        invalidate(event.getPostId());
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        invalidate(event.getPostId());
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        event.getPostIds().forEach(this::invalidate);
+    }
+
+    // Published by the scheduled flush, outside any transaction
+    @Order(1)
+    @EventListener
+    public void onPostLikeCountsFlushed(PostLikeCountsFlushedEvent event) {
+        event.getPostIds().forEach(this::invalidate);
+    }
+
+    public CacheStatsDto stats() {
+        return CacheStatsDto.from("post-response", responses);
+    }
+
+    private SerializedResponse serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzip = gzipEnabled && json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+            return new SerializedResponse(json, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SerializedResponse {
+        private final byte[] json;
+        // null when gzip is disabled or the body is too small to be worth compressing
+        private final byte[] gzip;
+
+        int weight() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
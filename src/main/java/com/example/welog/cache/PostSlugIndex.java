@@ -0,0 +1,81 @@
+package com.example.welog.cache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.repository.PostRepository;
+
+/**
+ * In-memory slug -> post id map, so resolving /posts/by-slug/{slug} does not touch the database.
+ * Loaded once the application is ready and kept current from PostChangedEvent after commit.
+ * A slug that is not in the map (e.g. created by another instance) falls back to one indexed lookup
+ * and is remembered from then on.
+ */
+@Component
+public class PostSlugIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PostSlugIndex.class);
+
+    private final PostRepository postRepository;
+    private final Map<String, Long> idsBySlug = new ConcurrentHashMap<>();
+    // Reverse map so a delete can drop the slug without a query
+    private final Map<Long, String> slugsById = new ConcurrentHashMap<>();
+
+    public PostSlugIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        postRepository.findAllSlugs().forEach(post -> put(post.getId(), post.getSlug()));
+        logger.info("Slug index loaded: {} posts", idsBySlug.size());
+    }
+
+    public Optional<Long> resolve(String slug) {
+        Long id = idsBySlug.get(slug);
+        if (id != null) {
+            return Optional.of(id);
+        }
+
+        Optional<Long> stored = postRepository.findIdBySlug(slug);
+        stored.ifPresent(postId -> put(postId, slug));
+        return stored;
+    }
+
+    public int size() {
+        return idsBySlug.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            remove(event.getPostId());
+        } else {
+            postRepository.findSlugById(event.getPostId())
+                    .ifPresent(slug -> put(event.getPostId(), slug));
+        }
+    }
+
+    private void put(Long postId, String slug) {
+        String previous = slugsById.put(postId, slug);
+        if (previous != null && !previous.equals(slug)) {
+            idsBySlug.remove(previous, postId);
+        }
+        idsBySlug.put(slug, postId);
+    }
+
+    private void remove(Long postId) {
+        String slug = slugsById.remove(postId);
+        if (slug != null) {
+            idsBySlug.remove(slug, postId);
+        }
+    }
+}
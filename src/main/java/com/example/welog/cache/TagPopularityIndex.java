@@ -0,0 +1,162 @@
+package com.example.welog.cache;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.welog.dto.TagCountDto;
+import com.example.welog.event.PostTagsChangedEvent;
+import com.example.welog.model.Tag;
+import com.example.welog.repository.TagRepository;
+
+/**
+ * Tags ranked by post count, kept in memory so the tag cloud never runs an aggregate.
+ * Loaded from tags.post_count once the application is ready and moved by the same deltas the write paths
+ * apply to that column (PostTagsChangedEvent, after commit). A periodic reconciliation recounts the column
+ * from posts_tags and reloads, which repairs drift from writes that bypass the services.
+ * <p>
+ * A reload builds the new ranking off to the side and swaps it in. Deltas that arrive while the counts are being
+ * read are journaled and replayed onto the new ranking, so they are not lost. A delta whose commit the read
+ * already saw is then counted twice, but only until the next reconciliation.
+ */
+@Component
+public class TagPopularityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TagPopularityIndex.class);
+
+    private static final Comparator<TagCount> MOST_POPULAR_FIRST = Comparator.<TagCount>comparingLong(tag -> tag.postCount).reversed()
+            .thenComparingLong(tag -> tag.id);
+
+    private final TagRepository tagRepository;
+    private final Object reloadLock = new Object();
+    // Swapped whole by load(); guarded by the monitor
+    private Map<Long, TagCount> tagsById = new HashMap<>();
+    private TreeSet<TagCount> ranking = new TreeSet<>(MOST_POPULAR_FIRST);
+    // Deltas applied since the running load() started reading, by tag id; null when no load is running
+    private Map<Long, JournaledDelta> reloadJournal;
+
+    public TagPopularityIndex(TagRepository tagRepository) {
+        this.tagRepository = tagRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        // One reload at a time (startup and reconcile() could otherwise share a journal)
+        synchronized (reloadLock) {
+            synchronized (this) {
+                reloadJournal = new HashMap<>();
+            }
+            List<TagRepository.TagPostCount> counts;
+            try {
+                counts = tagRepository.findTagPostCounts();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    reloadJournal = null;
+                }
+                throw e;
+            }
+
+            Map<Long, TagCount> loadedById = new HashMap<>();
+            TreeSet<TagCount> loadedRanking = new TreeSet<>(MOST_POPULAR_FIRST);
+            counts.forEach(count -> put(loadedById, loadedRanking, new TagCount(count.getId(), count.getName(), count.getPostCount())));
+            synchronized (this) {
+                reloadJournal.forEach((tagId, journaled) -> {
+                    TagCount loaded = loadedById.get(tagId);
+                    long count = loaded != null ? loaded.postCount : 0;
+                    put(loadedById, loadedRanking, new TagCount(tagId, journaled.name, Math.max(0, count + journaled.delta)));
+                });
+                tagsById = loadedById;
+                ranking = loadedRanking;
+                reloadJournal = null;
+            }
+            logger.info("Tag popularity loaded: {} tags", counts.size());
+        }
+    }
+
+    public synchronized List<TagCountDto> top(int limit) {
+        return ranking.stream()
+                .limit(limit)
+                .map(tag -> new TagCountDto(tag.id, tag.name, tag.postCount))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostTagsChanged(PostTagsChangedEvent event) {
+        adjust(event.getAddedTagIds(), 1);
+        adjust(event.getRemovedTagIds(), -1);
+    }
+
+    @Scheduled(initialDelayString = "${app.tags.reconcile-interval:1h}", fixedDelayString = "${app.tags.reconcile-interval:1h}")
+    public void reconcile() {
+        int drifted = tagRepository.reconcilePostCounts();
+        if (drifted > 0) {
+            logger.warn("Tag post counts had drifted for {} tags; recounted", drifted);
+        }
+        load();
+    }
+
+    private void adjust(Collection<Long> tagIds, long delta) {
+        for (Long tagId : tagIds) {
+            TagCount current;
+            synchronized (this) {
+                current = tagsById.get(tagId);
+            }
+            // A tag created by this change (e.g. on import) is not loaded yet
+            String name = current != null ? current.name : tagRepository.findById(tagId).map(Tag::getName).orElse(null);
+            if (name == null) {
+                continue;
+            }
+
+            synchronized (this) {
+                TagCount latest = tagsById.get(tagId);
+                long count = latest != null ? latest.postCount : 0;
+                put(tagsById, ranking, new TagCount(tagId, name, Math.max(0, count + delta)));
+                if (reloadJournal != null) {
+                    reloadJournal.merge(tagId, new JournaledDelta(name, delta),
+                            (a, b) -> new JournaledDelta(a.name, a.delta + b.delta));
+                }
+            }
+        }
+    }
+
+    // Caller holds the monitor when the maps are the live ones
+    private static void put(Map<Long, TagCount> tagsById, TreeSet<TagCount> ranking, TagCount tag) {
+        TagCount previous = tagsById.put(tag.id, tag);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        ranking.add(tag);
+    }
+
+    private static final class TagCount {
+        private final long id;
+        private final String name;
+        private final long postCount;
+
+        TagCount(long id, String name, long postCount) {
+            this.id = id;
+            this.name = name;
+            this.postCount = postCount;
+        }
+    }
+
+    private static final class JournaledDelta {
+        private final String name;
+        private final long delta;
+
+        JournaledDelta(String name, long delta) {
+            this.name = name;
+            this.delta = delta;
+        }
+    }
+}
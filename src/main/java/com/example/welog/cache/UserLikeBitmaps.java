@@ -0,0 +1,76 @@
+package com.example.welog.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.welog.dto.CacheStatsDto;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.repository.PostLikeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Per-user sets of liked post ids ({@link PostIdBitmap}), so "which of these posts did I like?" is answered
+ * from memory. A user's bitmap is loaded on first use with one indexed scan of posts_likes and then kept
+ * current by PostLikeChangedEvent after commit. Users not seen for a while are evicted and simply reload.
+ * <p>
+ * An event for a user whose bitmap is still loading waits for the load (Caffeine computes per key), then
+ * applies on top of it, so a like committed mid-load is never lost.
+ */
+@Component
+public class UserLikeBitmaps {
+    private final PostLikeRepository postLikeRepository;
+    private final Cache<Long, PostIdBitmap> cache;
+
+    public UserLikeBitmaps(PostLikeRepository postLikeRepository,
+                           @Value("${app.cache.user-likes.max-users:10000}") long maxUsers,
+                           @Value("${app.cache.user-likes.ttl:30m}") Duration ttl) {
+        this.postLikeRepository = postLikeRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The subset of postIds the user has liked, in request order.
+     */
+    public List<Long> likedAmong(Long userId, Collection<Long> postIds) {
+        PostIdBitmap bitmap = cache.get(userId, id -> PostIdBitmap.of(postLikeRepository.findPostIdsByUserId(id)));
+        synchronized (bitmap) {
+            return postIds.stream()
+                    .filter(bitmap::contains)
+                    .distinct()
+                    .toList();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        // Users without a loaded bitmap pick the change up when they load
+        cache.asMap().computeIfPresent(event.getUserId(), (userId, bitmap) -> {
+            synchronized (bitmap) {
+                if (event.getType() == PostLikeChangedEvent.Type.LIKED) {
+                    bitmap.add(event.getPostId());
+                } else {
+                    bitmap.remove(event.getPostId());
+                }
+            }
+            return bitmap;
+        });
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public CacheStatsDto stats() {
+        return CacheStatsDto.from("user-likes", cache);
+    }
+}
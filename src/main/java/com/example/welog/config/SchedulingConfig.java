@@ -0,0 +1,10 @@
+package com.example.welog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs: reconciliation of maintained counters (TagPopularityIndex)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
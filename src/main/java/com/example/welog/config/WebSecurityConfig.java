@@ -1,5 +1,6 @@
 package com.example.welog.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -59,9 +60,14 @@ public class WebSecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth ->
-                        auth.requestMatchers("/api/v1/auth/**").permitAll()
+                        // Re-dispatches of async requests (notification streams closing), for any endpoint: an ASYNC
+                        // dispatch only follows a REQUEST dispatch that these rules already authorized
+                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                            .requestMatchers("/api/v1/auth/**").permitAll()
                             .requestMatchers(HttpMethod.GET, "/api/v1/posts/**").permitAll()
                             .requestMatchers(HttpMethod.GET, "/api/v1/img/**").permitAll()
+                            .requestMatchers(HttpMethod.GET, "/api/v1/search/**").permitAll()
+                            .requestMatchers(HttpMethod.GET, "/api/v1/tags/**").permitAll()
                             .anyRequest().authenticated()
                 );
 
@@ -0,0 +1,49 @@
+package com.example.welog.controller;
+
+import com.example.welog.cache.PostDetailCache;
+import com.example.welog.cache.PostResponseCache;
+import com.example.welog.cache.UserLikeBitmaps;
+import com.example.welog.dto.CacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing in-process cache metrics
+ * Only accessible by admins
+ */
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@RequiredArgsConstructor
+public class CacheAdminController {
+
+    private final PostDetailCache postDetailCache;
+    private final PostResponseCache postResponseCache;
+    private final UserLikeBitmaps userLikeBitmaps;
+
+    /**
+     * Hit/miss/eviction counters of every cache
+     * GET /api/v1/admin/cache/stats
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(List.of(postDetailCache.stats(), postResponseCache.stats(), userLikeBitmaps.stats()));
+    }
+
+    /**
+     * Drop every cached entry, e.g. after editing rows directly in the database
+     * DELETE /api/v1/admin/cache
+     */
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> clearCaches() {
+        postDetailCache.clear();
+        postResponseCache.clear();
+        userLikeBitmaps.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -12,12 +12,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.example.welog.dto.CommentCreateDto;
 import com.example.welog.dto.CommentPatchDto;
 import com.example.welog.dto.CommentResponseDto;
+import com.example.welog.dto.CommentThreadDto;
+import com.example.welog.dto.CursorPageDto;
 import com.example.welog.service.CommentService;
+import com.example.welog.utils.ResourceVersion;
 
 
 @RestController
@@ -36,15 +41,48 @@ public class CommentController {
         return ResponseEntity.status(HttpStatus.OK).body(comments);
     }
 
+    // mode=threaded: only root comments, each with its replies nested (the whole tree from one query)
     @GetMapping("/posts/{postId}/comments")
-    public ResponseEntity<List<CommentResponseDto>> getCommentsByPostId(@PathVariable Long postId) {
-        List<CommentResponseDto> comments = commentService.getCommentsByPostId(postId);
+    public ResponseEntity<List<CommentResponseDto>> getCommentsByPostId(@PathVariable Long postId, @RequestParam(required = false, defaultValue = "flat") String mode, ServletWebRequest webRequest) {
+        boolean threaded = "threaded".equalsIgnoreCase(mode);
+        ResourceVersion version = commentService.getCommentsVersion(postId);
+        if ((threaded ? version.variant("threaded") : version).checkNotModified(webRequest)) {
+            return null;
+        }
+
+        List<CommentResponseDto> comments = threaded ? commentService.getCommentThreadsByPostId(postId) : commentService.getCommentsByPostId(postId);
+
+        return ResponseEntity.status(HttpStatus.OK).body(comments);
+    }
+
+    @GetMapping("/posts/{postId}/comments/scroll")
+    public ResponseEntity<CursorPageDto<CommentResponseDto>> scrollCommentsByPostId(@PathVariable Long postId, @RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "10") int size) {
+        CursorPageDto<CommentResponseDto> comments = commentService.scrollCommentsByPostId(postId, cursor, size);
 
         return ResponseEntity.status(HttpStatus.OK).body(comments);
     }
 
+    // Root comments a page at a time, each with its first `replies` replies; the rest come from /comments/{id}/replies
+    @GetMapping("/posts/{postId}/comments/threads")
+    public ResponseEntity<CursorPageDto<CommentThreadDto>> scrollCommentThreadsByPostId(@PathVariable Long postId, @RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "10") int size, @RequestParam(required = false, defaultValue = "3") int replies) {
+        CursorPageDto<CommentThreadDto> threads = commentService.scrollCommentThreadsByPostId(postId, cursor, size, replies);
+
+        return ResponseEntity.status(HttpStatus.OK).body(threads);
+    }
+
+    @GetMapping("/comments/{id}/replies")
+    public ResponseEntity<CursorPageDto<CommentThreadDto>> scrollRepliesByCommentId(@PathVariable Long id, @RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "10") int size, @RequestParam(required = false, defaultValue = "3") int replies) {
+        CursorPageDto<CommentThreadDto> threads = commentService.scrollRepliesByCommentId(id, cursor, size, replies);
+
+        return ResponseEntity.status(HttpStatus.OK).body(threads);
+    }
+
     @GetMapping("/posts/{postId}/root-comments")
-    public ResponseEntity<List<CommentResponseDto>> getRootCommentsByPostId(@PathVariable Long postId) {
+    public ResponseEntity<List<CommentResponseDto>> getRootCommentsByPostId(@PathVariable Long postId, ServletWebRequest webRequest) {
+        if (commentService.getCommentsVersion(postId).variant("root").checkNotModified(webRequest)) {
+            return null;
+        }
+
         List<CommentResponseDto> comments = commentService.getRootCommentsByPostId(postId);
 
         return ResponseEntity.status(HttpStatus.OK).body(comments);
@@ -2,16 +2,25 @@ package com.example.welog.controller;
 
 import java.util.List;
 
+import jakarta.validation.Valid;
 import org.apache.catalina.connector.Response;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.example.welog.dto.NotificationResponseDto;
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.NotificationReadRequestDto;
+import com.example.welog.dto.NotificationViewDto;
+import com.example.welog.dto.UnreadCountDto;
 import com.example.welog.service.NotificationService;
 
 @RestController
@@ -24,10 +33,32 @@ public class NotificationController {
     }
 
     @GetMapping("/users/{userId}/notifications")
-    public ResponseEntity<List<NotificationResponseDto>> getNotifications(@PathVariable Long userId) {
+    public ResponseEntity<List<NotificationViewDto>> getNotifications(@PathVariable Long userId) {
         return ResponseEntity.ok(notificationService.getNotificationsForUser(userId));
     }
 
+    @GetMapping("/users/{userId}/notifications/scroll")
+    public ResponseEntity<CursorPageDto<NotificationViewDto>> scrollNotifications(@PathVariable Long userId, @RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "20") int size) {
+        return ResponseEntity.ok(notificationService.scrollNotificationsForUser(userId, cursor, size));
+    }
+
+    @GetMapping(value = "/me/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationService.streamNotifications(lastEventId);
+    }
+
+    // Badge polling: served from the users.unread_notification_count counter
+    @GetMapping("/me/notifications/unread-count")
+    public ResponseEntity<UnreadCountDto> getUnreadCount() {
+        return ResponseEntity.ok(notificationService.getUnreadCount());
+    }
+
+    @PatchMapping("/me/notifications/read")
+    public ResponseEntity<Void> markNotificationsAsRead(@Valid @RequestBody NotificationReadRequestDto request) {
+        notificationService.markNotificationsAsRead(request.getIds());
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/users/{userId}/notifications/read-all")
     public ResponseEntity<Void> markAllNotificationsAsRead(@PathVariable Long userId) {
         notificationService.markAllNotificationsAsRead(userId);
@@ -1,20 +1,32 @@
 package com.example.welog.controller;
 
 import java.util.List;
+import java.util.Optional;
 
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.welog.cache.PostResponseCache;
+import com.example.welog.cache.PostResponseCache.SerializedResponse;
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.PostCardDto;
 import com.example.welog.dto.PostCreateDto;
 import com.example.welog.dto.PostPatchDto;
 import com.example.welog.dto.PostResponseDto;
+import com.example.welog.dto.PostSearchHitDto;
+import com.example.welog.exception.BadRequestException;
+import com.example.welog.service.PostSearchService;
 import com.example.welog.service.PostService;
+import com.example.welog.utils.ResourceVersion;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -23,9 +35,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequestMapping("/api/v1/posts")
 public class PostController {
     private final PostService postService;
+    private final PostResponseCache postResponseCache;
+    private final PostSearchService postSearchService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostResponseCache postResponseCache, PostSearchService postSearchService) {
         this.postService = postService;
+        this.postResponseCache = postResponseCache;
+        this.postSearchService = postSearchService;
     }
 
     @GetMapping
@@ -34,16 +50,49 @@ public class PostController {
         return ResponseEntity.ok(postService.getAllPosts(pageable));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<PostResponseDto>> scrollPosts(@RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.scrollPosts(cursor, size));
+    }
+
+    // Card view for list pages: no content and no comment tree
+    @GetMapping("/feed")
+    public ResponseEntity<List<PostCardDto>> getPostFeed(Pageable pageable) {
+        return ResponseEntity.ok(postService.getPostFeed(pageable));
+    }
+
+    // Hottest posts right now (likes and comments, decayed over time), as cards
+    @GetMapping("/trending")
+    public ResponseEntity<List<PostCardDto>> getTrendingPosts(@RequestParam(required = false, defaultValue = "10") int limit) {
+        return ResponseEntity.ok(postService.getTrendingPosts(limit));
+    }
+
+    // Served from pre-serialized JSON: cache hits are copied to the response without going through Jackson.
+    // A client holding the current version gets a 304 decided by the version probe alone.
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponseDto> getPost(@PathVariable Long id) {
-        return ResponseEntity.ok(postService.getPost(id));
+    public ResponseEntity<byte[]> getPost(@PathVariable Long id, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding, ServletWebRequest webRequest) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        Optional<ResourceVersion> version = postService.getPostVersion(id);
+        if (version.isPresent() && (gzip ? version.get().variant("gzip") : version.get()).checkNotModified(webRequest)) {
+            return null;
+        }
+
+        SerializedResponse response = postResponseCache.get(id, () -> postService.getPost(id));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (response.getGzip() != null && gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzip());
+        }
+        return builder.body(response.getJson());
     }
 
-    // Cannot distinguish between slug and id in the URL, so we will not implement this method
-    // @GetMapping("/{slug}")
-    // public ResponseEntity<PostResponseDto> getPostBySlug(@PathVariable String slug) {
-    //     return ResponseEntity.ok(postService.getPostBySlug(slug));
-    // }
+    // SEO URLs: the slug is resolved from memory, the body comes from the same caches as /{id}
+    @GetMapping("/by-slug/{slug}")
+    public ResponseEntity<byte[]> getPostBySlug(@PathVariable String slug, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding, ServletWebRequest webRequest) {
+        return getPost(postService.getPostIdBySlug(slug), acceptEncoding, webRequest);
+    }
 
     @PostMapping
     public ResponseEntity<PostResponseDto> createPost(@Valid @RequestBody PostCreateDto postCreateDto) {
@@ -69,11 +118,44 @@ public class PostController {
         return ResponseEntity.noContent().build();
     }
 
+    // mode=title (default): substring match on the title, as before; mode=fulltext: ranked search over title, excerpt and content.
+    // The query is passed as q (or title, kept for existing clients)
     @GetMapping("/search")
-    public ResponseEntity<Page<PostResponseDto>> searchPostsByTitle(@RequestParam String title, @RequestParam( required = false, defaultValue = "0") int page, @RequestParam(required = false, defaultValue = "10") int size) {
+    public ResponseEntity<Page<PostResponseDto>> searchPostsByTitle(@RequestParam(required = false) String title, @RequestParam(required = false) String q, @RequestParam(required = false, defaultValue = "title") String mode, @RequestParam( required = false, defaultValue = "0") int page, @RequestParam(required = false, defaultValue = "10") int size) {
+        String query = q != null ? q : title;
+        if (query == null) {
+            throw new BadRequestException("Missing search query: q");
+        }
+
         Pageable pageable = PageRequest.of(page, size);
-        Page<PostResponseDto> searchResults = postService.searchPostsByTitle(title, pageable);
+        Page<PostResponseDto> searchResults = switch (PostSearchService.parseMode(mode)) {
+            case TITLE -> postService.searchPostsByTitle(query, pageable);
+            case FULLTEXT -> postSearchService.searchFullText(query, pageable);
+        };
         return ResponseEntity.ok(searchResults);
     }
-    
+
+    // Served from the embedded BM25 index; pass the previous page's nextCursor as search_after
+    @GetMapping("/search/index")
+    public ResponseEntity<CursorPageDto<PostSearchHitDto>> searchPostIndex(@RequestParam String q, @RequestParam(name = "search_after", required = false) String searchAfter, @RequestParam(required = false, defaultValue = "10") int size) {
+        return ResponseEntity.ok(postSearchService.searchIndex(q, searchAfter, size));
+    }
+
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPageDto<PostResponseDto>> scrollPostsByTitle(@RequestParam String title, @RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.scrollPostsByTitle(title, cursor, size));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -1,20 +1,23 @@
 package com.example.welog.controller;
 
-import java.util.List;
-
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.welog.dto.UserResponseDto;
-import com.example.welog.model.PostLike;
+import com.example.welog.dto.LikeStatusDto;
+import com.example.welog.dto.LikeStatusRequestDto;
+import com.example.welog.dto.LikersPageDto;
+import com.example.welog.dto.PostLikeStateDto;
 import com.example.welog.service.PostLikeService;
 
+import jakarta.validation.Valid;
+
 @RestController
 @RequestMapping("/api/v1")
 public class PostLikeController {
@@ -25,19 +28,26 @@ public class PostLikeController {
     }
 
     @PostMapping("/posts/{postId}/likes")
-    public ResponseEntity<?> likePost(@PathVariable Long postId, @RequestParam Long userId) {
-        postLikeService.likePost(userId, postId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<PostLikeStateDto> likePost(@PathVariable Long postId, @RequestParam Long userId) {
+        return ResponseEntity.ok(postLikeService.likePost(userId, postId));
     }
 
     @DeleteMapping("/posts/{postId}/likes")
-    public ResponseEntity<?> unlikePost(@PathVariable Long postId, @RequestParam Long userId) {
-        postLikeService.unlikePost(userId, postId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<PostLikeStateDto> unlikePost(@PathVariable Long postId, @RequestParam Long userId) {
+        return ResponseEntity.ok(postLikeService.unlikePost(userId, postId));
     }
 
     @GetMapping("/posts/{postId}/likes")
-    public ResponseEntity<List<UserResponseDto>> getLikes(@PathVariable Long postId) {
-        return ResponseEntity.ok(postLikeService.getLikes(postId));
+    public ResponseEntity<LikersPageDto> getLikers(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postLikeService.getLikers(postId, cursor, size));
+    }
+
+    // Liked-by-me flags for a page of posts in one call
+    @PostMapping("/me/likes/status")
+    public ResponseEntity<LikeStatusDto> getLikeStatus(@Valid @RequestBody LikeStatusRequestDto request) {
+        return ResponseEntity.ok(postLikeService.getLikeStatus(request.getPostIds()));
     }
 }
@@ -0,0 +1,30 @@
+package com.example.welog.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.welog.dto.SuggestionDto;
+import com.example.welog.search.SuggestionIndex;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class SearchController {
+    private final SuggestionIndex suggestionIndex;
+
+    /**
+     * Search-box autocomplete: post titles and tag names starting with q, most popular first
+     * GET /api/v1/search/suggest?q=spr&limit=10
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(@RequestParam String q, @RequestParam(required = false, defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestionIndex.suggest(q, limit));
+    }
+}
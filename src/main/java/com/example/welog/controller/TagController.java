@@ -0,0 +1,40 @@
+package com.example.welog.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.PostCardDto;
+import com.example.welog.dto.TagCountDto;
+import com.example.welog.service.PostService;
+import com.example.welog.service.TagService;
+
+@RestController
+@RequestMapping("/api/v1/tags")
+public class TagController {
+    private final TagService tagService;
+    private final PostService postService;
+
+    public TagController(TagService tagService, PostService postService) {
+        this.tagService = tagService;
+        this.postService = postService;
+    }
+
+    // Tag cloud: most used tags first, served from memory
+    @GetMapping("/popular")
+    public ResponseEntity<List<TagCountDto>> getPopularTags(@RequestParam(required = false, defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tagService.getPopularTags(limit));
+    }
+
+    // Newest posts carrying the tag, as cards; pass the previous page's nextCursor to continue
+    @GetMapping("/{name}/posts")
+    public ResponseEntity<CursorPageDto<PostCardDto>> getPostsByTag(@PathVariable String name, @RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.scrollPostsByTag(name, cursor, size));
+    }
+}
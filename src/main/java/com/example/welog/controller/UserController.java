@@ -18,8 +18,10 @@ import com.example.welog.service.UserService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.welog.dto.CursorPageDto;
 import com.example.welog.dto.UserPatchDto;
 import com.example.welog.dto.UserResponseDto;
 
@@ -39,8 +41,18 @@ public class UserController {
         return ResponseEntity.ok(service.getAll(pageable));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<UserResponseDto>> scrollUsers(@RequestParam(required = false) String cursor, @RequestParam(required = false, defaultValue = "10") int size) {
+        return ResponseEntity.ok(service.scroll(cursor, size));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDto> getUser(@PathVariable Long id) {
+    public ResponseEntity<UserResponseDto> getUser(@PathVariable Long id, ServletWebRequest webRequest) {
+        // 304 straight from the version probe, without loading the user
+        if (service.getVersion(id).map(version -> version.checkNotModified(webRequest)).orElse(false)) {
+            return null;
+        }
+
         return ResponseEntity.ok(service.get(id));
     }
 
@@ -0,0 +1,26 @@
+package com.example.welog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * A comment with a preview of its first replies, oldest first. When {@code hasMoreReplies} is set, the rest are
+ * paged from GET /comments/{id}/replies starting at {@code repliesCursor}. Preview replies carry no replies of their own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentThreadDto {
+    private Long id;
+    private String content;
+    private UserResponseDto user;
+    private Integer level;
+    private OffsetDateTime createdAt;
+    private List<CommentResponseDto> replies;
+    private boolean hasMoreReplies;
+    private String repliesCursor;
+}
@@ -0,0 +1,15 @@
+package com.example.welog.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The requested post ids the caller has liked, in request order
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LikeStatusDto {
+    private List<Long> likedPostIds;
+}
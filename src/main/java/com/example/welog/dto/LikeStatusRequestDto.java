@@ -0,0 +1,18 @@
+package com.example.welog.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LikeStatusRequestDto {
+    @NotNull(message = "postIds is required")
+    @Size(max = 200, message = "At most 200 post ids per request")
+    private List<Long> postIds;
+}
@@ -0,0 +1,20 @@
+package com.example.welog.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a post's likers, newest first, with the post's total like count.
+ * {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikersPageDto {
+    private List<UserSummaryDto> items;
+    private String nextCursor;
+    private long totalCount;
+}
@@ -0,0 +1,18 @@
+package com.example.welog.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationReadRequestDto {
+    @NotNull(message = "ids is required")
+    @Size(max = 500, message = "At most 500 notification ids per request")
+    private List<Long> ids;
+}
@@ -0,0 +1,55 @@
+package com.example.welog.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Lightweight view of a notification: the post and sender as summaries, never the full post or user.
+ * <p>
+ * A coalesced notification stands for {@code actorCount} actors; {@code sender} is the most recent one and
+ * {@code latestActors} the few most recent, newest first (filled in by NotificationViewAssembler).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationViewDto {
+    private Long id;
+    private String type;
+    private String message;
+    private boolean read;
+    private OffsetDateTime createdAt;
+    private int actorCount;
+    private PostSummaryDto post;
+    private UserSummaryDto sender;
+    private List<UserSummaryDto> latestActors;
+
+    @JsonIgnore
+    private String latestActorIds;
+
+    // Used by the JPQL constructor expressions in NotificationRepository
+    public NotificationViewDto(Long id, String type, String message, boolean read, OffsetDateTime createdAt,
+                               int actorCount, String latestActorIds,
+                               Long postId, String postSlug, String postTitle,
+                               Long senderId, String senderName, String senderPhoto) {
+        this.id = id;
+        this.type = type;
+        this.read = read;
+        this.createdAt = createdAt;
+        this.actorCount = actorCount;
+        this.latestActorIds = latestActorIds;
+        this.post = postId != null ? new PostSummaryDto(postId, postSlug, postTitle) : null;
+        this.sender = new UserSummaryDto(senderId, senderName, senderPhoto);
+        this.message = actorCount > 1 && postId != null ? rolledUpMessage(senderName, actorCount - 1, postTitle) : message;
+    }
+
+    // The stored message is the latest actor's own; only likes are coalesced
+    private static String rolledUpMessage(String senderName, int others, String postTitle) {
+        return senderName + " and " + others + (others == 1 ? " other" : " others") + " liked your post: " + postTitle;
+    }
+}
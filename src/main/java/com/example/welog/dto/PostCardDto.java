@@ -0,0 +1,42 @@
+package com.example.welog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight view of a post for list pages (no content, no comment tree).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCardDto {
+    private Long id;
+    private String slug;
+    private String title;
+    private String excerpt;
+    private String coverImage;
+    private UserSummaryDto author;
+    private OffsetDateTime createdAt;
+    private List<String> tags = new ArrayList<>();
+    private long commentCount;
+    private long likeCount;
+
+    // Used by the JPQL constructor expressions in PostRepository, tags are attached afterwards
+    public PostCardDto(Long id, String slug, String title, String excerpt, String coverImage, OffsetDateTime createdAt,
+                       Long authorId, String authorName, String authorPhoto, Long commentCount, Long likeCount) {
+        this.id = id;
+        this.slug = slug;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.coverImage = coverImage;
+        this.createdAt = createdAt;
+        this.author = new UserSummaryDto(authorId, authorName, authorPhoto);
+        this.commentCount = commentCount != null ? commentCount : 0;
+        this.likeCount = likeCount != null ? likeCount : 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.welog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a like/unlike: the resulting state, and whether this request is what changed it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostLikeStateDto {
+    private Long postId;
+    private boolean liked;
+    private boolean changed;
+}
@@ -19,6 +19,7 @@ public class PostResponseDto {
     private String coverImage;
     private UserResponseDto author;
     private OffsetDateTime createdAt;
+    private long likeCount;
     private Set<TagResponseDto> tags;
     private Set<CommentResponseDto> comments;
 }
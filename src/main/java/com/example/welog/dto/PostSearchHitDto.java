@@ -0,0 +1,16 @@
+package com.example.welog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One ranked hit from the embedded search index; details are fetched with /posts/by-slug/{slug}
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSearchHitDto {
+    private Long id;
+    private String slug;
+    private String title;
+    private float score;
+}
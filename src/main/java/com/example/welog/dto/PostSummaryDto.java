@@ -0,0 +1,14 @@
+package com.example.welog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryDto {
+    private Long id;
+    private String slug;
+    private String title;
+}
@@ -0,0 +1,16 @@
+package com.example.welog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One autocomplete completion: a post title (with its slug) or a tag name (slug is null)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    private String type;
+    private String text;
+    private String slug;
+    private long weight;
+}
@@ -0,0 +1,15 @@
+package com.example.welog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A tag with the number of live posts carrying it (tag cloud, popular tags)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TagCountDto {
+    private Long id;
+    private String name;
+    private long postCount;
+}
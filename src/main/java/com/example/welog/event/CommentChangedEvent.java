@@ -0,0 +1,27 @@
+package com.example.welog.event;
+
+import java.time.OffsetDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by CommentService whenever a comment of a post is created, edited or soft-deleted.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CommentChangedEvent {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Long postId;
+    private final Long commentId;
+    private final Type type;
+    // DELETED: when the comment was created, so its contribution can be taken back (null if unknown)
+    private final OffsetDateTime commentCreatedAt;
+
+    public CommentChangedEvent(Long postId, Long commentId, Type type) {
+        this(postId, commentId, type, null);
+    }
+}
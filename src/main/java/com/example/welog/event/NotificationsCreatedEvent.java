@@ -0,0 +1,25 @@
+package com.example.welog.event;
+
+import java.util.Map;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by NotificationOutboxDispatcher once a batch of notifications has committed.
+ * Besides new notifications, a batch can update rolled-up ones in place (coalesced likes); those keep their id,
+ * so they are listed by recipient for the streams to push again.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class NotificationsCreatedEvent {
+    private final Set<Long> recipientIds;
+    private final Map<Long, Set<Long>> updatedIdsByRecipientId;
+
+    public NotificationsCreatedEvent(Set<Long> recipientIds) {
+        this(recipientIds, Map.of());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.welog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by PostService (and the importer) whenever a post row is created, edited or soft-deleted.
+ * Listeners that keep derived state (caches, indexes) react after the surrounding transaction commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PostChangedEvent {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Long postId;
+    private final Type type;
+}
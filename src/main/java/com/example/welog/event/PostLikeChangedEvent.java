@@ -0,0 +1,27 @@
+package com.example.welog.event;
+
+import java.time.OffsetDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by PostLikeService when a user likes or unlikes a post.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PostLikeChangedEvent {
+    public enum Type { LIKED, UNLIKED }
+
+    private final Long userId;
+    private final Long postId;
+    private final Type type;
+    // UNLIKED: when the removed like was made, so its contribution can be taken back (null if unknown)
+    private final OffsetDateTime likedAt;
+
+    public PostLikeChangedEvent(Long userId, Long postId, Type type) {
+        this(userId, postId, type, null);
+    }
+}
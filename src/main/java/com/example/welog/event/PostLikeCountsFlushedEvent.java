@@ -0,0 +1,17 @@
+package com.example.welog.event;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by PostLikeCounter once the like counts of these posts have been written to posts.like_count.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PostLikeCountsFlushedEvent {
+    private final List<Long> postIds;
+}
@@ -0,0 +1,20 @@
+package com.example.welog.event;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published in the same transaction that adjusted tags.post_count: the tags a post gained (imported, tagged)
+ * and lost (untagged, soft-deleted). TagPopularityIndex applies the same deltas in memory after commit.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PostTagsChangedEvent {
+    private final Long postId;
+    private final Collection<Long> addedTagIds;
+    private final Collection<Long> removedTagIds;
+}
@@ -0,0 +1,19 @@
+package com.example.welog.event;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by UserService when a user's profile (name, photo, ...) changed or the user was deleted, with the
+ * posts whose details show that user as author or commenter.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserProfileChangedEvent {
+    private final Long userId;
+    private final List<Long> postIds;
+}
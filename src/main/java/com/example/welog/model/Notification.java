@@ -41,6 +41,16 @@ public class Notification {
     @Column(name = "is_read", nullable = false)
     private boolean isRead = false;
 
+    // Coalescing (NotificationOutboxDispatcher): written with the row, never by saving the entity
+    @Column(name = "actor_count", nullable = false, insertable = false, updatable = false, columnDefinition = "INT DEFAULT 1")
+    private int actorCount;
+
+    @Column(name = "latest_actor_ids", insertable = false, updatable = false)
+    private String latestActorIds;
+
+    @Column(name = "group_window_start", insertable = false, updatable = false)
+    private OffsetDateTime groupWindowStart;
+
     @Column(name = "created_at", insertable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private OffsetDateTime createdAt;
 
@@ -0,0 +1,19 @@
+package com.example.welog.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One distinct actor of a coalesced notification (see NotificationOutboxDispatcher). Written with JDBC;
+ * the mapping only documents the table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_group_actors")
+public class NotificationGroupActor {
+    @EmbeddedId
+    private NotificationGroupActorId id;
+}
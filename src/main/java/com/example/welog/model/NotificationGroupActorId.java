@@ -0,0 +1,31 @@
+package com.example.welog.model;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class NotificationGroupActorId implements Serializable {
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "type")
+    private String type;
+
+    @Column(name = "group_window_start")
+    private OffsetDateTime groupWindowStart;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+}
@@ -0,0 +1,49 @@
+package com.example.welog.model;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A notification waiting to be created (see NotificationOutboxDispatcher). Written with native SQL on the
+ * request path and drained with JDBC; the mapping mostly documents the table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Column(name = "sender_id", nullable = false)
+    private Long senderId;
+
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at", insertable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "attempts", nullable = false, insertable = false, columnDefinition = "INT DEFAULT 0")
+    private int attempts;
+
+    @Column(name = "next_attempt_at", insertable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
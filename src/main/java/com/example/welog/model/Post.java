@@ -48,6 +48,10 @@ public class Post {
     @Column(name = "deleted_at")
     private OffsetDateTime deletedAt;
 
+    // Written only by PostLikeCounter's batched flushes, never by saving the entity
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long likeCount;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "posts_tags",
@@ -32,7 +32,10 @@ public class Tag {
     @Column(name = "deleted_at")
     private OffsetDateTime deletedAt;
 
-
+    // Live posts carrying this tag; kept in step with posts_tags by the write paths' bulk updates, see V9 migration.
+    // Never written from the entity, so flushing a loaded tag cannot overwrite a concurrent increment
+    @Column(name = "post_count", nullable = false, insertable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long postCount;
 
     @ManyToMany(mappedBy = "tags")
     Set<Post> posts = new HashSet<>();
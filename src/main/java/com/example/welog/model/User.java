@@ -43,6 +43,10 @@ public class User {
     @Column(name = "deleted_at")
     private OffsetDateTime deletedAt;
 
+    // Written only by the notification write paths' counter updates, never by saving the entity
+    @Column(name = "unread_notification_count", nullable = false, insertable = false, updatable = false, columnDefinition = "INT DEFAULT 0")
+    private int unreadNotificationCount;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
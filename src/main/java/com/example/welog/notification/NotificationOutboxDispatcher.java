@@ -0,0 +1,448 @@
+package com.example.welog.notification;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.welog.event.NotificationsCreatedEvent;
+import com.example.welog.event.PostLikeChangedEvent;
+
+/**
+ * Turns notification_outbox rows into notifications, off the request path.
+ * <p>
+ * A single virtual thread drains the outbox in batches: it locks up to {@code batch-size} due rows
+ * ({@code FOR UPDATE SKIP LOCKED}, so several instances can share the table), inserts the notifications with one
+ * JDBC batch, bumps the recipients' unread counters and deletes the rows, all in one transaction. If the batch
+ * fails, each row is retried on its own so one bad row cannot hold back the rest; a row that still fails is pushed
+ * back by {@code retry-backoff} and given up after {@code max-attempts} (it stays in the table with its last error).
+ * <p>
+ * Likes are coalesced: within one {@code coalesce.window} (fixed windows, 0 turns coalescing off) a recipient gets
+ * a single notification per post that counts the distinct actors (notification_group_actors, V20) and keeps the
+ * latest few ("Alice and 41 others liked your post"). Each fold updates the group's row in place: it keeps its id and place in the inbox (so cursors and read
+ * marks stay valid) and becomes unread again. Since the id is not new, the rows updated this way are listed in
+ * {@link NotificationsCreatedEvent} so live streams push them again.
+ * <p>
+ * The thread sleeps between polls and is woken as soon as a like commits, so notifications normally appear
+ * within milliseconds; the poll interval only matters for rows left behind by a crash or a failed attempt.
+ */
+@Component
+public class NotificationOutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    private static final String SELECT_DUE = """
+            SELECT id, recipient_id, sender_id, post_id, type, message, created_at
+            FROM notification_outbox
+            WHERE next_attempt_at <= ? AND attempts < ?
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+    private static final String SELECT_DUE_IDS =
+            "SELECT id FROM notification_outbox WHERE next_attempt_at <= ? AND attempts < ? ORDER BY id LIMIT ?";
+    private static final String SELECT_ONE = """
+            SELECT id, recipient_id, sender_id, post_id, type, message, created_at
+            FROM notification_outbox
+            WHERE id = ?
+            FOR UPDATE SKIP LOCKED
+            """;
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (recipient_id, sender_id, post_id, type, message, is_read, created_at) VALUES (?, ?, ?, ?, ?, FALSE, ?)";
+    // Coalescing: the group's current row, locked and then updated in place.
+    // The row is never older than its window, which keeps the lookup to one monthly partition.
+    private static final String SELECT_GROUP = """
+            SELECT id, created_at, actor_count, latest_actor_ids, is_read
+            FROM notifications
+            WHERE recipient_id = ? AND post_id = ? AND type = ? AND group_window_start = ? AND created_at >= ?
+            FOR UPDATE
+            """;
+    private static final String UPDATE_GROUP = """
+            UPDATE notifications
+            SET actor_count = ?, latest_actor_ids = ?, sender_id = ?, message = ?, is_read = FALSE
+            WHERE id = ? AND created_at = ?
+            """;
+    private static final String INSERT_GROUP = """
+            INSERT INTO notifications (recipient_id, sender_id, post_id, type, message, is_read, created_at,
+                                       actor_count, latest_actor_ids, group_window_start)
+            VALUES (?, ?, ?, ?, ?, FALSE, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    // 1 for an actor new to the group, 0 for one already counted (e.g. a like, unlike and like again)
+    private static final String INSERT_GROUP_ACTOR = """
+            INSERT INTO notification_group_actors (recipient_id, post_id, type, group_window_start, actor_id)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String ADD_UNREAD =
+            "UPDATE users SET unread_notification_count = unread_notification_count + ? WHERE id = ?";
+    private static final String DELETE_ROW = "DELETE FROM notification_outbox WHERE id = ?";
+    private static final String MARK_FAILED =
+            "UPDATE notification_outbox SET attempts = attempts + 1, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private static final Set<String> COALESCED_TYPES = Set.of("LIKE");
+    private static final int LATEST_ACTORS = 3;
+    private static final int GROUP_ATTEMPTS = 3;
+
+    private static final RowMapper<OutboxRow> ROW_MAPPER = (rs, rowNum) -> new OutboxRow(
+            rs.getLong("id"),
+            rs.getLong("recipient_id"),
+            rs.getLong("sender_id"),
+            rs.getObject("post_id") != null ? rs.getLong("post_id") : null,
+            rs.getString("type"),
+            rs.getString("message"),
+            rs.getTimestamp("created_at"));
+
+    private static final RowMapper<GroupRow> GROUP_ROW_MAPPER = (rs, rowNum) -> new GroupRow(
+            rs.getLong("id"),
+            rs.getTimestamp("created_at"),
+            rs.getInt("actor_count"),
+            rs.getString("latest_actor_ids"),
+            rs.getBoolean("is_read"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration coalesceWindow;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    public NotificationOutboxDispatcher(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${app.notifications.outbox.batch-size:500}") int batchSize,
+                                        @Value("${app.notifications.outbox.poll-interval:5s}") Duration pollInterval,
+                                        @Value("${app.notifications.outbox.max-attempts:10}") int maxAttempts,
+                                        @Value("${app.notifications.outbox.retry-backoff:30s}") Duration retryBackoff,
+                                        @Value("${app.notifications.coalesce.window:24h}") Duration coalesceWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.coalesceWindow = checkCoalesceWindow(coalesceWindow);
+    }
+
+    // Windows are aligned to the epoch: one that evenly divides a day never crosses midnight UTC, hence never a month,
+    // and the unique group key only holds within one monthly partition (V17)
+    private static Duration checkCoalesceWindow(Duration window) {
+        if (window.isNegative() || window.compareTo(Duration.ofDays(1)) > 0
+                || (!window.isZero() && Duration.ofDays(1).toMillis() % window.toMillis() != 0)) {
+            throw new IllegalArgumentException("app.notifications.coalesce.window must be 0 or evenly divide one day, was " + window);
+        }
+        return window;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofVirtual().name("notification-outbox").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = worker;
+        }
+        if (current != null) {
+            current.interrupt();
+            current.join(Duration.ofSeconds(10));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.getType() == PostLikeChangedEvent.Type.LIKED) {
+            wakeUp();
+        }
+    }
+
+    public void wakeUp() {
+        wakeUp.release();
+    }
+
+    /**
+     * Delivers (or fails) one batch of due outbox rows and returns how many rows it took.
+     */
+    public int dispatchBatch() {
+        try {
+            Delivery delivery = transactionTemplate.execute(status ->
+                    deliver(jdbcTemplate.query(SELECT_DUE, ROW_MAPPER, OffsetDateTime.now(), maxAttempts, batchSize)));
+            published(delivery);
+            return delivery == null ? 0 : delivery.rows.size();
+        } catch (DataAccessException e) {
+            logger.warn("Notification outbox batch failed, retrying rows one by one: {}", e.getMessage());
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_DUE_IDS, Long.class, OffsetDateTime.now(), maxAttempts, batchSize);
+            ids.forEach(this::dispatchOne);
+            return ids.size();
+        }
+    }
+
+    private void dispatchOne(long id) {
+        try {
+            published(transactionTemplate.execute(status -> deliver(jdbcTemplate.query(SELECT_ONE, ROW_MAPPER, id))));
+        } catch (DataAccessException e) {
+            logger.warn("Notification outbox row {} failed: {}", id, e.getMessage());
+            jdbcTemplate.update(MARK_FAILED, OffsetDateTime.now().plus(retryBackoff), String.valueOf(e.getMostSpecificCause().getMessage()), id);
+        }
+    }
+
+    // After commit: lets live streams (NotificationStreamHub) pick the new notifications up
+    private void published(Delivery delivery) {
+        if (delivery == null || delivery.rows.isEmpty()) {
+            return;
+        }
+        Set<Long> recipientIds = new HashSet<>();
+        delivery.rows.forEach(row -> recipientIds.add(row.recipientId));
+        eventPublisher.publishEvent(new NotificationsCreatedEvent(recipientIds, delivery.updatedIdsByRecipientId));
+    }
+
+    // Caller holds the transaction (and the row locks)
+    private Delivery deliver(List<OutboxRow> rows) {
+        Map<Long, Set<Long>> updatedIdsByRecipientId = new HashMap<>();
+        if (rows.isEmpty()) {
+            return new Delivery(rows, updatedIdsByRecipientId);
+        }
+        List<OutboxRow> singles = new ArrayList<>();
+        // Groups in key order, so dispatchers sharing a group lock its row in the same order
+        Map<GroupKey, List<OutboxRow>> groups = new TreeMap<>(GroupKey.ORDER);
+        for (OutboxRow row : rows) {
+            if (coalesceWindow.isZero() || row.postId == null || !COALESCED_TYPES.contains(row.type)) {
+                singles.add(row);
+            } else {
+                groups.computeIfAbsent(new GroupKey(row.recipientId, row.postId, row.type, windowStart(row.createdAt)), key -> new ArrayList<>()).add(row);
+            }
+        }
+
+        // Unread counters move with the inserts; recipients in id order so concurrent dispatchers lock users alike
+        Map<Long, Integer> unread = new TreeMap<>();
+        insertSingles(singles);
+        singles.forEach(row -> unread.merge(row.recipientId, 1, Integer::sum));
+        groups.forEach((key, group) -> {
+            if (coalesce(key, group, updatedIdsByRecipientId)) {
+                unread.merge(key.recipientId, 1, Integer::sum);
+            }
+        });
+        List<Object[]> increments = new ArrayList<>(unread.size());
+        unread.forEach((recipientId, count) -> increments.add(new Object[]{count, recipientId}));
+        jdbcTemplate.batchUpdate(ADD_UNREAD, increments);
+
+        List<Object[]> ids = new ArrayList<>(rows.size());
+        rows.forEach(row -> ids.add(new Object[]{row.id}));
+        jdbcTemplate.batchUpdate(DELETE_ROW, ids);
+        return new Delivery(rows, updatedIdsByRecipientId);
+    }
+
+    private void insertSingles(List<OutboxRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OutboxRow row = rows.get(i);
+                ps.setLong(1, row.recipientId);
+                ps.setLong(2, row.senderId);
+                if (row.postId != null) {
+                    ps.setLong(3, row.postId);
+                } else {
+                    ps.setNull(3, Types.BIGINT);
+                }
+                ps.setString(4, row.type);
+                ps.setString(5, row.message);
+                ps.setTimestamp(6, row.createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Folds a group's rows (oldest first) into its rolled-up notification and returns whether that adds an unread
+     * notification for the recipient: a new group, or one the recipient had already read. An existing group's id is
+     * added to {@code updatedIds}.
+     * <p>
+     * actor_count grows by the actors recorded for the group for the first time, so it counts distinct people
+     * however often each of them likes, unlikes and likes again.
+     */
+    private boolean coalesce(GroupKey key, List<OutboxRow> group, Map<Long, Set<Long>> updatedIds) {
+        OutboxRow latest = group.get(group.size() - 1);
+        // Once per group, not per attempt: the rows stay inserted in this transaction across a retry
+        int newActors = recordActors(key, group);
+        for (int attempt = 1; attempt <= GROUP_ATTEMPTS; attempt++) {
+            List<GroupRow> current = jdbcTemplate.query(SELECT_GROUP, GROUP_ROW_MAPPER, key.recipientId, key.postId, key.type, key.windowStart, key.windowStart);
+            GroupRow existing = current.isEmpty() ? null : current.get(0);
+
+            List<Long> actors = existing == null ? new ArrayList<>() : NotificationViewAssembler.parseActorIds(existing.latestActorIds);
+            int actorCount = (existing == null ? 0 : existing.actorCount) + newActors;
+            for (OutboxRow row : group) {
+                actors.remove(Long.valueOf(row.senderId));
+                actors.add(0, row.senderId);
+            }
+            List<Long> latestActors = actors.subList(0, Math.min(actors.size(), LATEST_ACTORS));
+
+            String latestActorIds = NotificationViewAssembler.formatActorIds(latestActors);
+            if (existing != null) {
+                jdbcTemplate.update(UPDATE_GROUP, actorCount, latestActorIds, latest.senderId, latest.message, existing.id, existing.createdAt);
+                updatedIds.computeIfAbsent(key.recipientId, id -> new HashSet<>()).add(existing.id);
+                return existing.read;
+            }
+            int inserted = jdbcTemplate.update(INSERT_GROUP, key.recipientId, latest.senderId, key.postId, key.type, latest.message,
+                    latest.createdAt, actorCount, latestActorIds, key.windowStart);
+            if (inserted == 1) {
+                return true;
+            }
+            // Another dispatcher created the group in the meantime: fold into its row instead
+        }
+        throw new ConcurrencyFailureException("Could not coalesce notifications for recipient " + key.recipientId + ", post " + key.postId);
+    }
+
+    // Actors in id order, so dispatchers folding the same group lock its actor rows alike
+    private int recordActors(GroupKey key, List<OutboxRow> group) {
+        List<Object[]> actors = group.stream()
+                .map(row -> row.senderId)
+                .distinct()
+                .sorted()
+                .map(actorId -> new Object[]{key.recipientId, key.postId, key.type, key.windowStart, actorId})
+                .toList();
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_GROUP_ACTOR, actors)) {
+            inserted += Math.max(count, 0);
+        }
+        return inserted;
+    }
+
+    private Timestamp windowStart(Timestamp createdAt) {
+        long millis = createdAt.getTime();
+        return new Timestamp(millis - Math.floorMod(millis, coalesceWindow.toMillis()));
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (dispatchBatch() == batchSize) {
+                    continue; // more is waiting
+                }
+            } catch (RuntimeException e) {
+                logger.error("Notification outbox dispatch failed", e);
+            }
+
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final class GroupKey {
+        private static final Comparator<GroupKey> ORDER = Comparator.<GroupKey>comparingLong(key -> key.recipientId)
+                .thenComparingLong(key -> key.postId)
+                .thenComparing(key -> key.type)
+                .thenComparing(key -> key.windowStart);
+
+        private final long recipientId;
+        private final long postId;
+        private final String type;
+        private final Timestamp windowStart;
+
+        GroupKey(long recipientId, long postId, String type, Timestamp windowStart) {
+            this.recipientId = recipientId;
+            this.postId = postId;
+            this.type = type;
+            this.windowStart = windowStart;
+        }
+    }
+
+    private static final class Delivery {
+        private final List<OutboxRow> rows;
+        private final Map<Long, Set<Long>> updatedIdsByRecipientId;
+
+        Delivery(List<OutboxRow> rows, Map<Long, Set<Long>> updatedIdsByRecipientId) {
+            this.rows = rows;
+            this.updatedIdsByRecipientId = updatedIdsByRecipientId;
+        }
+    }
+
+    private static final class GroupRow {
+        private final long id;
+        private final Timestamp createdAt;
+        private final int actorCount;
+        private final String latestActorIds;
+        private final boolean read;
+
+        GroupRow(long id, Timestamp createdAt, int actorCount, String latestActorIds, boolean read) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.actorCount = actorCount;
+            this.latestActorIds = latestActorIds;
+            this.read = read;
+        }
+    }
+
+    private static final class OutboxRow {
+        private final long id;
+        private final long recipientId;
+        private final long senderId;
+        private final Long postId;
+        private final String type;
+        private final String message;
+        private final Timestamp createdAt;
+
+        OutboxRow(long id, long recipientId, long senderId, Long postId, String type, String message, Timestamp createdAt) {
+            this.id = id;
+            this.recipientId = recipientId;
+            this.senderId = senderId;
+            this.postId = postId;
+            this.type = type;
+            this.message = message;
+            this.createdAt = createdAt;
+        }
+    }
+}
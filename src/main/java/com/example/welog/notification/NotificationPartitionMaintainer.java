@@ -0,0 +1,148 @@
+package com.example.welog.notification;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the monthly partitions of notifications (V17) in shape: creates the next {@code months-ahead} months ahead
+ * of time, and removes whole months older than {@code retention-months}, either dropping them or, with
+ * {@code retention-mode=detach}, detaching them into standalone {@code notifications_archive_YYYY_MM} tables that
+ * can be dumped and dropped at leisure. Either way it is a catalog operation, not a row-by-row delete.
+ * <p>
+ * Unread notifications in a removed month are first subtracted from users.unread_notification_count, with one
+ * aggregate over that partition, locked for the rest of the transaction. Runs at startup and daily; does nothing on databases other than PostgreSQL.
+ * <p>
+ * Also deletes the distinct actors (V20) of coalescing windows that ended long ago and can no longer take folds.
+ */
+@Component
+public class NotificationPartitionMaintainer {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPartitionMaintainer.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("notifications_(\\d{4})_(\\d{2})");
+
+    private static final String SELECT_PARTITIONS = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'notifications'
+            ORDER BY c.relname
+            """;
+    private static final String CREATE_PARTITION = "SELECT create_notifications_partition(CAST(? AS DATE))";
+    private static final String SUBTRACT_UNREAD = """
+            UPDATE users u
+            SET unread_notification_count = GREATEST(u.unread_notification_count - c.unread, 0)
+            FROM (SELECT recipient_id, COUNT(*) AS unread FROM %s WHERE is_read = FALSE AND deleted_at IS NULL GROUP BY recipient_id) c
+            WHERE u.id = c.recipient_id
+            """;
+
+    private static final String PURGE_GROUP_ACTORS = "DELETE FROM notification_group_actors WHERE group_window_start < ?";
+    // A window is at most a day and its outbox rows give up within minutes; a week leaves room for a stalled dispatcher
+    private static final Duration GROUP_ACTOR_RETENTION = Duration.ofDays(7);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean detach;
+
+    private volatile Boolean postgres;
+
+    public NotificationPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${app.notifications.partitions.months-ahead:2}") int monthsAhead,
+                                           @Value("${app.notifications.retention-months:6}") int retentionMonths,
+                                           @Value("${app.notifications.retention-mode:drop}") String retentionMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.detach = "detach".equalsIgnoreCase(retentionMode);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.notifications.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        if (!isPostgres()) {
+            return;
+        }
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                jdbcTemplate.queryForObject(CREATE_PARTITION, String.class, now.plusMonths(i).atDay(1));
+            }
+            List<String> partitions = jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class);
+            for (String partition : expiredPartitions(partitions, now.minusMonths(retentionMonths))) {
+                remove(partition);
+            }
+            jdbcTemplate.update(PURGE_GROUP_ACTORS, OffsetDateTime.now().minus(GROUP_ACTOR_RETENTION));
+        } catch (DataAccessException e) {
+            logger.error("Notification partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Lower bound of inbox reads, derived from retention so every notification counted in users.unread_notification_count
+     * can also be listed: the start of the month before the oldest one kept, so a month stays readable until
+     * maintenance has removed it (and subtracted its unread notifications).
+     */
+    public static OffsetDateTime inboxHorizon(int retentionMonths) {
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths + 1L).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Monthly partitions that end on or before the start of {@code oldestKept}, oldest first.
+     */
+    static List<String> expiredPartitions(List<String> partitions, YearMonth oldestKept) {
+        return partitions.stream()
+                .filter(partition -> {
+                    Matcher matcher = PARTITION_NAME.matcher(partition);
+                    return matcher.matches()
+                            && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))).isBefore(oldestKept);
+                })
+                .sorted()
+                .toList();
+    }
+
+    private void remove(String partition) {
+        // Names come from the catalog and matched PARTITION_NAME, so quoting is all they need
+        String table = '"' + partition + '"';
+        transactionTemplate.executeWithoutResult(status -> {
+            // Locked first: a concurrent mark-as-read would otherwise take the same rows off the counter a second time
+            jdbcTemplate.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.update(SUBTRACT_UNREAD.formatted(table));
+            if (detach) {
+                jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + table);
+                jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO \"notifications_archive_" + partition.substring("notifications_".length()) + '"');
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + table);
+            }
+        });
+        logger.info("Notification partition {} {}", partition, detach ? "detached" : "dropped");
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.welog.notification;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.welog.dto.NotificationViewDto;
+import com.example.welog.event.NotificationsCreatedEvent;
+import com.example.welog.repository.NotificationRepository;
+
+/**
+ * Live notification streams (Server-Sent Events, GET /api/v1/me/notifications/stream).
+ * <p>
+ * Each connection is an async {@link SseEmitter}: the request thread is released as soon as the stream is opened,
+ * so an idle connection costs a queue and a few objects, not a thread. Sending is done by short-lived virtual
+ * threads, one at a time per connection, from a bounded per-connection buffer. A client that falls
+ * {@code buffer-size} events behind is disconnected and catches up on reconnect.
+ * <p>
+ * Per user, one channel remembers the last notification id it has loaded. When NotificationOutboxDispatcher reports
+ * new notifications for a user with open streams, the channel loads everything after that id once and fans it out
+ * to the user's connections. Event ids are notification ids, so a reconnect with {@code Last-Event-ID} replays
+ * what was missed; if that is more than a buffer's worth, the client gets a {@code reset} event instead and should
+ * reload its inbox. Every {@code heartbeat} an SSE comment keeps proxies from closing idle streams and detects
+ * dead ones.
+ * <p>
+ * A rolled-up notification (coalesced likes) that gains actors keeps its id, so the id scan would never see it
+ * again: the dispatcher lists those ids and the channel sends them as well, as a {@code notification} event that
+ * replaces the one with the same id. Those events carry no SSE id, so they never move a client's
+ * {@code Last-Event-ID} back; an update missed while disconnected is only seen when the inbox is reloaded.
+ * <p>
+ * Notifications created by another instance only reach this instance's streams on the next reconnect.
+ */
+@Component
+public class NotificationStreamHub {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamHub.class);
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String RESET_EVENT = "reset";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationViewAssembler viewAssembler;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final int retentionMonths;
+    private final Executor executor;
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NotificationStreamHub(NotificationRepository notificationRepository,
+                                 NotificationViewAssembler viewAssembler,
+                                 @Value("${app.notifications.stream.buffer-size:100}") int bufferSize,
+                                 @Value("${app.notifications.stream.timeout:30m}") Duration timeout,
+                                 @Value("${app.notifications.retention-months:6}") int retentionMonths) {
+        this(notificationRepository, viewAssembler, bufferSize, timeout, retentionMonths, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    NotificationStreamHub(NotificationRepository notificationRepository, NotificationViewAssembler viewAssembler, int bufferSize,
+                          Duration timeout, int retentionMonths, Executor executor) {
+        this.notificationRepository = notificationRepository;
+        this.viewAssembler = viewAssembler;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.retentionMonths = retentionMonths;
+        this.executor = executor;
+    }
+
+    /**
+     * Opens a stream of the user's new notifications, first replaying those after {@code lastEventId} if given.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(() -> detach(userId, subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> detach(userId, subscription));
+
+        while (true) {
+            Channel channel = channels.computeIfAbsent(userId, Channel::new);
+            channel.lock.lock();
+            try {
+                if (channel.closed) {
+                    continue; // lost a race with the last subscriber leaving; start a fresh channel
+                }
+                channel.attach(subscription, lastEventId);
+                return emitter;
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        for (Long recipientId : event.getRecipientIds()) {
+            Channel channel = channels.get(recipientId);
+            if (channel != null) {
+                Set<Long> updatedIds = event.getUpdatedIdsByRecipientId().getOrDefault(recipientId, Set.of());
+                executor.execute(() -> channel.load(updatedIds));
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.notifications.stream.heartbeat:25s}", fixedRateString = "${app.notifications.stream.heartbeat:25s}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscriptions.forEach(Subscription::heartbeat));
+    }
+
+    public int connectionCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscriptions.size()).sum();
+    }
+
+    // Overridden in tests to observe what a connection receives
+    void send(SseEmitter emitter, StreamEvent event) throws IOException {
+        if (event.name == null) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else if (!event.resumable) {
+            emitter.send(SseEmitter.event().name(event.name).data(event.data, MediaType.APPLICATION_JSON));
+        } else {
+            emitter.send(SseEmitter.event().id(String.valueOf(event.id)).name(event.name).data(event.data, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Bounds every query to the partitions still retained
+    private OffsetDateTime since() {
+        return NotificationPartitionMaintainer.inboxHorizon(retentionMonths);
+    }
+
+    private void detach(Long userId, Subscription subscription) {
+        subscription.closed = true;
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        channel.lock.lock();
+        try {
+            channel.subscriptions.remove(subscription);
+            if (channel.subscriptions.isEmpty() && !channel.closed) {
+                channel.closed = true;
+                channels.remove(userId, channel);
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    static final class StreamEvent {
+        static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null);
+
+        final long id;
+        final String name;
+        final Object data;
+        // Sent with its id as the SSE id, i.e. a point a reconnect can resume after
+        final boolean resumable;
+
+        StreamEvent(long id, String name, Object data) {
+            this(id, name, data, true);
+        }
+
+        StreamEvent(long id, String name, Object data, boolean resumable) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.resumable = resumable;
+        }
+    }
+
+    private final class Channel {
+        private final Long userId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        // Guarded by lock
+        private long lastLoadedId = -1;
+        private boolean closed;
+
+        Channel(Long userId) {
+            this.userId = userId;
+        }
+
+        // Caller holds the lock
+        void attach(Subscription subscription, Long lastEventId) {
+            if (lastLoadedId < 0) {
+                lastLoadedId = notificationRepository.findLatestIdByRecipientId(userId, since()).orElse(0L);
+            }
+            if (lastEventId != null && lastEventId < lastLoadedId) {
+                // Everything up to lastLoadedId; anything newer arrives through load() like for everyone else
+                List<NotificationViewDto> missed = notificationRepository.findViewsAfterId(userId, lastEventId, since(), Limit.of(bufferSize + 1)).stream()
+                        .filter(view -> view.getId() <= lastLoadedId)
+                        .toList();
+                if (missed.size() > bufferSize) {
+                    subscription.offer(new StreamEvent(lastLoadedId, RESET_EVENT, ""));
+                } else {
+                    viewAssembler.withLatestActors(missed).forEach(view -> subscription.offer(new StreamEvent(view.getId(), NOTIFICATION_EVENT, view)));
+                }
+            }
+            subscriptions.add(subscription);
+        }
+
+        void load(Set<Long> updatedIds) {
+            lock.lock();
+            try {
+                if (closed || lastLoadedId < 0) {
+                    return;
+                }
+                // Updated in place after being sent; anything above lastLoadedId is new to this channel and comes below
+                List<Long> resent = updatedIds.stream().filter(id -> id <= lastLoadedId).toList();
+                if (!resent.isEmpty()) {
+                    for (NotificationViewDto view : viewAssembler.withLatestActors(notificationRepository.findViewsByRecipientIdAndIdIn(userId, resent, since()))) {
+                        StreamEvent event = new StreamEvent(view.getId(), NOTIFICATION_EVENT, view, false);
+                        subscriptions.forEach(subscription -> subscription.offer(event));
+                    }
+                }
+
+                List<NotificationViewDto> views;
+                do {
+                    views = notificationRepository.findViewsAfterId(userId, lastLoadedId, since(), Limit.of(bufferSize));
+                    for (NotificationViewDto view : viewAssembler.withLatestActors(views)) {
+                        StreamEvent event = new StreamEvent(view.getId(), NOTIFICATION_EVENT, view);
+                        subscriptions.forEach(subscription -> subscription.offer(event));
+                        lastLoadedId = view.getId();
+                    }
+                } while (views.size() == bufferSize);
+            } catch (RuntimeException e) {
+                logger.warn("Could not load new notifications for user {}: {}", userId, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<StreamEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                // Too slow to keep up: drop the connection, the client resumes from its Last-Event-ID
+                detach(userId, this);
+                emitter.complete();
+                return;
+            }
+            schedule();
+        }
+
+        // Only worth sending when nothing else is queued
+        void heartbeat() {
+            if (!closed && buffer.isEmpty() && buffer.offer(StreamEvent.HEARTBEAT)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    send(emitter, event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                detach(userId, this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !buffer.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.welog.notification;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.example.welog.dto.NotificationViewDto;
+import com.example.welog.dto.UserSummaryDto;
+import com.example.welog.repository.UserRepository;
+
+/**
+ * Fills in the latest actors of a page of notification views with one user lookup for the whole page.
+ */
+@Component
+public class NotificationViewAssembler {
+    private final UserRepository userRepository;
+
+    public NotificationViewAssembler(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public List<NotificationViewDto> withLatestActors(List<NotificationViewDto> views) {
+        Set<Long> actorIds = new LinkedHashSet<>();
+        views.forEach(view -> actorIds.addAll(parseActorIds(view.getLatestActorIds())));
+
+        Map<Long, UserSummaryDto> actors = new HashMap<>();
+        if (!actorIds.isEmpty()) {
+            userRepository.findSummariesByIdIn(actorIds).forEach(actor -> actors.put(actor.getId(), actor));
+        }
+
+        for (NotificationViewDto view : views) {
+            List<Long> ids = parseActorIds(view.getLatestActorIds());
+            // Not coalesced: the sender is the only actor
+            view.setLatestActors(ids.isEmpty()
+                    ? List.of(view.getSender())
+                    : ids.stream().map(actors::get).filter(Objects::nonNull).toList());
+        }
+        return views;
+    }
+
+    // notifications.latest_actor_ids: newest first, comma separated
+    static List<Long> parseActorIds(String latestActorIds) {
+        List<Long> ids = new ArrayList<>();
+        if (latestActorIds == null || latestActorIds.isBlank()) {
+            return ids;
+        }
+        for (String id : latestActorIds.split(",")) {
+            ids.add(Long.parseLong(id.trim()));
+        }
+        return ids;
+    }
+
+    static String formatActorIds(List<Long> ids) {
+        return String.join(",", ids.stream().map(String::valueOf).toList());
+    }
+}
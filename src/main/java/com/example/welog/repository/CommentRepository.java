@@ -2,29 +2,101 @@ package com.example.welog.repository;
 
 import com.example.welog.model.Comment;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 // import com.example.welog.model.Post;
 // import org.springframework.data.domain.Page;
 // import org.springframework.data.domain.Pageable;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 // import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+        // Fetch plans: the comment author is joined up front, replies and roles are batch-initialized
+        @Override
+        @EntityGraph(attributePaths = {"user"})
+        List<Comment> findAll();
+
+        @EntityGraph(attributePaths = {"user"})
         List<Comment> findByPostId(Long postId);
 
         @Transactional
+        @EntityGraph(attributePaths = {"user"})
         @Query("SELECT c FROM Comment c WHERE c.level=1 AND c.post.id = :postId")
         List<Comment> findRootCommentsByPostId(Long postId);
 
+        // A post's whole discussion in one statement, authors and their roles joined; ResponseDtoMapper links the replies
+        @EntityGraph(attributePaths = {"user", "user.roles"})
+        @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findThreadByPostId(@Param("postId") Long postId);
+
+        // Version probe for conditional GET of a post's comment listings
+        @Query("SELECT COUNT(c) AS commentCount, MAX(c.updatedAt) AS updatedAt, MAX(u.updatedAt) AS usersUpdatedAt FROM Comment c JOIN c.user u WHERE c.post.id = :postId")
+        CommentsVersion findVersionByPostId(@Param("postId") Long postId);
+
+        // Keyset pagination over (created_at, id), oldest first
+        @EntityGraph(attributePaths = {"user"})
+        @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findKeysetFirstPageByPostId(@Param("postId") Long postId, Limit limit);
+
+        @EntityGraph(attributePaths = {"user"})
+        @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND (c.createdAt, c.id) > (:createdAt, :id) ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findKeysetPageByPostIdAfter(@Param("postId") Long postId, @Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+        // Root comments of a post, keyset over (created_at, id); served by idx_comments_post_id_level_created_at_id
+        @EntityGraph(attributePaths = {"user"})
+        @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.level = 1 ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findRootKeysetFirstPageByPostId(@Param("postId") Long postId, Limit limit);
+
+        @EntityGraph(attributePaths = {"user"})
+        @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.level = 1 AND (c.createdAt, c.id) > (:createdAt, :id) ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findRootKeysetPageByPostIdAfter(@Param("postId") Long postId, @Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+        // Direct replies of one comment, keyset over (created_at, id); served by idx_comments_parent_id_created_at_id
+        @EntityGraph(attributePaths = {"user"})
+        @Query("SELECT c FROM Comment c WHERE c.parent.id = :parentId ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findReplyKeysetFirstPageByParentId(@Param("parentId") Long parentId, Limit limit);
+
+        @EntityGraph(attributePaths = {"user"})
+        @Query("SELECT c FROM Comment c WHERE c.parent.id = :parentId AND (c.createdAt, c.id) > (:createdAt, :id) ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findReplyKeysetPageByParentIdAfter(@Param("parentId") Long parentId, @Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+        // The first perParent replies of each parent, for a whole page of threads in one statement. Kept in HQL: as a native
+        // query it stopped the roles of the page's authors from being batch-fetched, and they loaded one by one
+        @Query("""
+                SELECT r.id FROM (
+                    SELECT c.id AS id, ROW_NUMBER() OVER (PARTITION BY c.parent.id ORDER BY c.createdAt, c.id) AS position
+                    FROM Comment c
+                    WHERE c.parent.id IN :parentIds
+                ) r
+                WHERE r.position <= :perParent
+                """)
+        List<Long> findFirstReplyIdsByParentIdIn(@Param("parentIds") Collection<Long> parentIds, @Param("perParent") int perParent);
+
+        @EntityGraph(attributePaths = {"user"})
+        @Query("SELECT c FROM Comment c WHERE c.id IN :ids ORDER BY c.createdAt ASC, c.id ASC")
+        List<Comment> findByIdInOrderByCreatedAt(@Param("ids") Collection<Long> ids);
+
         @Modifying
         @Transactional
         @NativeQuery("UPDATE comments SET deleted_at = NOW() where id=?1")
         void softDelete(Long id);
+
+        interface CommentsVersion {
+                Long getCommentCount();
+
+                OffsetDateTime getUpdatedAt();
+
+                OffsetDateTime getUsersUpdatedAt();
+        }
 }
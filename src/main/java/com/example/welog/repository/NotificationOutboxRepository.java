@@ -0,0 +1,24 @@
+package com.example.welog.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import com.example.welog.model.NotificationOutbox;
+
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+    // The whole like notification in one statement, inside the like's transaction; self-likes enqueue nothing
+    @Modifying
+    @Transactional
+    @NativeQuery("""
+            INSERT INTO notification_outbox (recipient_id, sender_id, post_id, type, message)
+            SELECT p.author_id, u.id, p.id, 'LIKE', u.name || ' liked your post: ' || p.title
+            FROM posts p, users u
+            WHERE p.id = ?2 AND u.id = ?1 AND p.author_id <> u.id
+            """)
+    int enqueueLike(Long senderId, Long postId);
+}
@@ -1,13 +1,91 @@
 package com.example.welog.repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.welog.dto.NotificationViewDto;
 import com.example.welog.model.Notification;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByRecipientId(Long recipientId);
-}
\ No newline at end of file
+    // Every read below is bounded by :since (NotificationPartitionMaintainer.inboxHorizon): notifications are partitioned by month of
+    // created_at (V17), and the bound lets PostgreSQL skip the older partitions altogether.
+
+    // Inbox views: the post and sender as summaries, from one query, newest first
+    @Query("""
+            SELECT new com.example.welog.dto.NotificationViewDto(n.id, n.type, n.message, n.isRead, n.createdAt, n.actorCount, n.latestActorIds,
+                    p.id, p.slug, p.title, s.id, s.name, s.photo)
+            FROM Notification n JOIN n.sender s LEFT JOIN n.post p
+            WHERE n.recipient.id = :recipientId AND n.createdAt >= :since
+            ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<NotificationViewDto> findViewsByRecipientId(@Param("recipientId") Long recipientId, @Param("since") OffsetDateTime since);
+
+    // Keyset over (created_at, id) within one recipient (recipient/created_at index)
+    @Query("""
+            SELECT new com.example.welog.dto.NotificationViewDto(n.id, n.type, n.message, n.isRead, n.createdAt, n.actorCount, n.latestActorIds,
+                    p.id, p.slug, p.title, s.id, s.name, s.photo)
+            FROM Notification n JOIN n.sender s LEFT JOIN n.post p
+            WHERE n.recipient.id = :recipientId AND n.createdAt >= :since
+            ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<NotificationViewDto> findViewsFirstPageByRecipientId(@Param("recipientId") Long recipientId, @Param("since") OffsetDateTime since, Limit limit);
+
+    // The plain createdAt <= bound is implied by the row comparison but, unlike it, prunes the newer partitions
+
+    @Query("""
+            SELECT new com.example.welog.dto.NotificationViewDto(n.id, n.type, n.message, n.isRead, n.createdAt, n.actorCount, n.latestActorIds,
+                    p.id, p.slug, p.title, s.id, s.name, s.photo)
+            FROM Notification n JOIN n.sender s LEFT JOIN n.post p
+            WHERE n.recipient.id = :recipientId AND n.createdAt >= :since AND n.createdAt <= :createdAt
+                    AND (n.createdAt, n.id) < (:createdAt, :id)
+            ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<NotificationViewDto> findViewsPageByRecipientIdAfter(@Param("recipientId") Long recipientId, @Param("since") OffsetDateTime since, @Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Notification stream (NotificationStreamHub): a user's notifications newer than the last one sent, oldest first
+    @Query("""
+            SELECT new com.example.welog.dto.NotificationViewDto(n.id, n.type, n.message, n.isRead, n.createdAt, n.actorCount, n.latestActorIds,
+                    p.id, p.slug, p.title, s.id, s.name, s.photo)
+            FROM Notification n JOIN n.sender s LEFT JOIN n.post p
+            WHERE n.recipient.id = :recipientId AND n.id > :afterId AND n.createdAt >= :since
+            ORDER BY n.id
+            """)
+    List<NotificationViewDto> findViewsAfterId(@Param("recipientId") Long recipientId, @Param("afterId") Long afterId, @Param("since") OffsetDateTime since, Limit limit);
+
+    // Rolled-up notifications updated in place since the stream sent them (NotificationStreamHub)
+    @Query("""
+            SELECT new com.example.welog.dto.NotificationViewDto(n.id, n.type, n.message, n.isRead, n.createdAt, n.actorCount, n.latestActorIds,
+                    p.id, p.slug, p.title, s.id, s.name, s.photo)
+            FROM Notification n JOIN n.sender s LEFT JOIN n.post p
+            WHERE n.recipient.id = :recipientId AND n.id IN :ids AND n.createdAt >= :since
+            ORDER BY n.id
+            """)
+    List<NotificationViewDto> findViewsByRecipientIdAndIdIn(@Param("recipientId") Long recipientId, @Param("ids") Collection<Long> ids, @Param("since") OffsetDateTime since);
+
+    @Query("SELECT MAX(n.id) FROM Notification n WHERE n.recipient.id = :recipientId AND n.createdAt >= :since")
+    Optional<Long> findLatestIdByRecipientId(@Param("recipientId") Long recipientId, @Param("since") OffsetDateTime since);
+
+    @Query("SELECT n.recipient.id FROM Notification n WHERE n.id = :id")
+    Optional<Long> findRecipientIdById(@Param("id") Long id);
+
+    // Bulk read-state updates: one statement each, returning how many rows actually went from unread to read
+    // (the caller subtracts exactly that from users.unread_notification_count in the same transaction)
+    @Modifying
+    @NativeQuery("UPDATE notifications SET is_read = TRUE WHERE recipient_id = ?1 AND is_read = FALSE AND deleted_at IS NULL")
+    int markAllReadByRecipientId(Long recipientId);
+
+    @Modifying
+    @NativeQuery("UPDATE notifications SET is_read = TRUE WHERE recipient_id = ?1 AND id IN ?2 AND is_read = FALSE AND deleted_at IS NULL")
+    int markReadByRecipientIdAndIdIn(Long recipientId, Collection<Long> ids);
+}
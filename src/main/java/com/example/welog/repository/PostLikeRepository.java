@@ -1,8 +1,15 @@
 package com.example.welog.repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.welog.model.PostLike;
@@ -15,6 +22,71 @@ public interface PostLikeRepository extends JpaRepository<PostLike, PostLikeId>
     @Transactional
     boolean existsByUserIdAndPostId(Long userId, Long postId);
 
+    // Likers of a post, newest first, keyset over (created_at, user_id) (V12 index)
+    @Query("""
+            SELECT u.id AS userId, u.name AS name, u.photo AS photo, l.createdAt AS likedAt
+            FROM PostLike l JOIN l.user u
+            WHERE l.id.postId = :postId
+            ORDER BY l.createdAt DESC, l.id.userId DESC
+            """)
+    List<LikerRow> findLikersFirstPage(@Param("postId") Long postId, Limit limit);
+
+    @Query("""
+            SELECT u.id AS userId, u.name AS name, u.photo AS photo, l.createdAt AS likedAt
+            FROM PostLike l JOIN l.user u
+            WHERE l.id.postId = :postId AND (l.createdAt, l.id.userId) < (:likedAt, :userId)
+            ORDER BY l.createdAt DESC, l.id.userId DESC
+            """)
+    List<LikerRow> findLikersPageAfter(@Param("postId") Long postId, @Param("likedAt") OffsetDateTime likedAt, @Param("userId") Long userId, Limit limit);
+
+    // Everything one user has liked, for UserLikeBitmaps (primary key prefix scan)
+    @Query("SELECT l.id.postId FROM PostLike l WHERE l.id.userId = :userId")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT l.createdAt FROM PostLike l WHERE l.id.userId = :userId AND l.id.postId = :postId")
+    Optional<OffsetDateTime> findCreatedAt(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    // Idempotent like: a duplicate (even a concurrent one) is absorbed by the primary key instead of failing.
+    // Returns 0 when the like already exists, live or soft-deleted (see reviveIfDeleted), or when the live user
+    // or post does not exist.
+    @Modifying
+    @Transactional
+    @NativeQuery("""
+            INSERT INTO posts_likes (user_id, post_id)
+            SELECT u.id, p.id FROM users u, posts p
+            WHERE u.id = ?1 AND u.deleted_at IS NULL AND p.id = ?2 AND p.deleted_at IS NULL
+            ON CONFLICT DO NOTHING
+            """)
+    int insertIfAbsent(Long userId, Long postId);
+
+    // The soft-deleted half of a like: run before insertIfAbsent in the same transaction. The row lock lets only
+    // one concurrent caller see deleted_at set, so together they return 1 exactly once. created_at restarts
+    // because a revived like is a new one for the likers list and for trending.
+    // (Not folded into insertIfAbsent as ON CONFLICT DO UPDATE: H2, which runs these statements in tests, rejects it.)
+    @Modifying
     @Transactional
-    List<PostLike> findByPostId(Long postId);
+    @NativeQuery("""
+            UPDATE posts_likes SET deleted_at = NULL, created_at = CURRENT_TIMESTAMP
+            WHERE user_id = ?1 AND post_id = ?2 AND deleted_at IS NOT NULL
+              AND EXISTS (SELECT 1 FROM users u WHERE u.id = ?1 AND u.deleted_at IS NULL)
+              AND EXISTS (SELECT 1 FROM posts p WHERE p.id = ?2 AND p.deleted_at IS NULL)
+            """)
+    int reviveIfDeleted(Long userId, Long postId);
+
+    // Returns 1 for the one caller that actually removed the like, 0 for everyone else (a soft-deleted like is
+    // already gone)
+    @Modifying
+    @Transactional
+    @NativeQuery("DELETE FROM posts_likes WHERE user_id = ?1 AND post_id = ?2 AND deleted_at IS NULL")
+    int deleteIfPresent(Long userId, Long postId);
+
+    interface LikerRow {
+        Long getUserId();
+
+        String getName();
+
+        String getPhoto();
+
+        OffsetDateTime getLikedAt();
+    }
 }
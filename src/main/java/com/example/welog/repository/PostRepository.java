@@ -1,11 +1,16 @@
 package com.example.welog.repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import jakarta.transaction.Transactional;
 import org.hibernate.annotations.Where;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
@@ -13,13 +18,80 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.welog.dto.PostCardDto;
 import com.example.welog.model.Post;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // Fetch plans: the author is joined up front, the collections walked by ResponseDtoMapper
+    // (tags, comments, replies, roles) are batch-initialized per page (hibernate.default_batch_fetch_size)
+    @Override
+    @EntityGraph(attributePaths = {"author"})
+    Optional<Post> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"author"})
+    Page<Post> findAll(Pageable pageable);
+
     // Define methods for querying posts, e.g., by slug, author, etc.
+    @EntityGraph(attributePaths = {"author"})
     Optional<Post> findBySlug(String slug);
 
+    // Slug resolution (PostSlugIndex): scalar reads served by the unique index on posts.slug
+    @Query("SELECT p.id AS id, p.slug AS slug FROM Post p WHERE p.slug IS NOT NULL")
+    List<PostSlug> findAllSlugs();
+
+    @Query("SELECT p.id FROM Post p WHERE p.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    @Query("SELECT p.slug FROM Post p WHERE p.id = :id")
+    Optional<String> findSlugById(@Param("id") Long id);
+
+    // Version probe for conditional GET: one row of timestamps and counters covering everything in PostResponseDto.
+    // Tagging changes bump posts.updated_at (V19 trigger), tag renames tags.updated_at; a new comment only has created_at.
+    @Query("""
+            SELECT p.updatedAt AS updatedAt, a.updatedAt AS authorUpdatedAt, SIZE(p.tags) AS tagCount,
+                    (SELECT MAX(t.updatedAt) FROM Post tp JOIN tp.tags t WHERE tp = p) AS tagsUpdatedAt,
+                    (SELECT COUNT(c) FROM Comment c WHERE c.post = p) AS commentCount,
+                    (SELECT MAX(c.createdAt) FROM Comment c WHERE c.post = p) AS commentsCreatedAt,
+                    (SELECT MAX(c.updatedAt) FROM Comment c WHERE c.post = p) AS commentsUpdatedAt,
+                    (SELECT MAX(u.updatedAt) FROM Comment c JOIN c.user u WHERE c.post = p) AS commentersUpdatedAt,
+                    p.likeCount AS likeCount
+            FROM Post p JOIN p.author a
+            WHERE p.id = :id
+            """)
+    Optional<PostVersion> findVersionById(@Param("id") Long id);
+
+    // Posts whose details show the user, as author or commenter (cache eviction on profile changes)
+    @Query("SELECT p.id FROM Post p WHERE p.author.id = :userId UNION SELECT c.post.id FROM Comment c WHERE c.user.id = :userId")
+    List<Long> findIdsShowingUser(@Param("userId") Long userId);
+
+    // Rows for the embedded search index (PostSearchIndex): scalar columns only, nothing lazy to initialize
+    @Query("SELECT p.id AS id, p.slug AS slug, p.title AS title, p.excerpt AS excerpt, p.content AS content FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<PostIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT p.id AS id, p.slug AS slug, p.title AS title, p.excerpt AS excerpt, p.content AS content FROM Post p WHERE p.id IN :ids")
+    List<PostIndexRow> findIndexRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // A post that was never updated has updated_at NULL: its creation counts
+    @Query("SELECT p.id FROM Post p WHERE COALESCE(p.updatedAt, p.createdAt) >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") OffsetDateTime since);
+
+    @NativeQuery("SELECT CAST(id AS BIGINT) FROM posts WHERE deleted_at >= ?1")
+    List<Long> findIdsDeletedSince(OffsetDateTime since);
+
+    // Autocomplete (SuggestionIndex): titles weighted by like count
+    @Query("SELECT p.id AS id, p.slug AS slug, p.title AS title, p.likeCount AS likeCount FROM Post p")
+    List<PostSuggestionRow> findSuggestionRows();
+
+    @Query("SELECT p.id AS id, p.slug AS slug, p.title AS title, p.likeCount AS likeCount FROM Post p WHERE p.id = :id")
+    Optional<PostSuggestionRow> findSuggestionRowById(@Param("id") Long id);
+
+    // Soft-deleted posts keep their slug so old URLs never start pointing at different content
+    @NativeQuery("SELECT EXISTS (SELECT 1 FROM posts WHERE slug = ?1)")
+    boolean existsBySlugIncludingDeleted(String slug);
+
+    @EntityGraph(attributePaths = {"author"})
     Page<Post> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
     // Additional query methods can be defined here
@@ -28,6 +100,162 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @NativeQuery("UPDATE posts SET deleted_at = NOW() where id=?1")
     void softDelete(Long id);
 
+    // Stored like count (PostLikeCounter holds the unflushed rest); empty if the post does not exist
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :id")
+    Optional<Long> findLikeCountById(@Param("id") Long id);
+
+    // Batched like counter flush (PostLikeCounter): one statement per distinct delta
+    @Modifying
+    @Transactional
+    @NativeQuery("UPDATE posts SET like_count = like_count + ?1 WHERE id IN ?2")
+    int addLikeCounts(long delta, Collection<Long> ids);
+
     @Query("SELECT p FROM Post p LEFT JOIN FETCH p.tags LEFT JOIN FETCH p.comments WHERE p.id = :id")
     Optional<Post> findByIdWithTagsAndComments(@Param("id") Long id);
+
+    // Keyset pagination over (created_at, id), newest first
+    @EntityGraph(attributePaths = {"author"})
+    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findKeysetFirstPage(Limit limit);
+
+    @EntityGraph(attributePaths = {"author"})
+    @Query("SELECT p FROM Post p WHERE (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findKeysetPageAfter(@Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Full-text search (PostgreSQL): posts.search_vector is maintained by trigger, see V8 migration
+    @NativeQuery(value = """
+            SELECT p.* FROM posts p, websearch_to_tsquery('english', :query) q
+            WHERE p.deleted_at IS NULL AND p.search_vector @@ q
+            ORDER BY ts_rank(p.search_vector, q) DESC, p.id DESC
+            """,
+            countQuery = """
+            SELECT COUNT(*) FROM posts p
+            WHERE p.deleted_at IS NULL AND p.search_vector @@ websearch_to_tsquery('english', :query)
+            """)
+    Page<Post> searchFullText(@Param("query") String query, Pageable pageable);
+
+    // Portable fallback for databases without search_vector (H2 in tests): substring match, title hits first
+    @EntityGraph(attributePaths = {"author"})
+    @Query(value = """
+            SELECT p FROM Post p
+            WHERE LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%'))
+               OR LOWER(p.excerpt) LIKE LOWER(CONCAT('%', :query, '%'))
+               OR LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%'))
+            ORDER BY CASE WHEN LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) THEN 0 ELSE 1 END, p.id DESC
+            """,
+            countQuery = """
+            SELECT COUNT(p) FROM Post p
+            WHERE LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%'))
+               OR LOWER(p.excerpt) LIKE LOWER(CONCAT('%', :query, '%'))
+               OR LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%'))
+            """)
+    Page<Post> searchSubstring(@Param("query") String query, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author"})
+    List<Post> findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String title, Long id, Limit limit);
+
+    // Card projection for list pages: never touches content, tags are fetched separately with findTagNamesByPostIdIn
+    @Query("""
+            SELECT new com.example.welog.dto.PostCardDto(p.id, p.slug, p.title, p.excerpt, p.coverImage, p.createdAt,
+                    a.id, a.name, a.photo,
+                    (SELECT COUNT(c) FROM Comment c WHERE c.post = p),
+                    p.likeCount)
+            FROM Post p JOIN p.author a
+            """)
+    List<PostCardDto> findPostCards(Pageable pageable);
+
+    // Cards for a known set of posts (trending); the caller restores its own order
+    @Query("""
+            SELECT new com.example.welog.dto.PostCardDto(p.id, p.slug, p.title, p.excerpt, p.coverImage, p.createdAt,
+                    a.id, a.name, a.photo,
+                    (SELECT COUNT(c) FROM Comment c WHERE c.post = p),
+                    p.likeCount)
+            FROM Post p JOIN p.author a
+            WHERE p.id IN :ids
+            """)
+    List<PostCardDto> findPostCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Cards of one tag, keyset over (created_at, id) newest first; posts_tags is entered by tag_id (V10 index)
+    @Query("""
+            SELECT new com.example.welog.dto.PostCardDto(p.id, p.slug, p.title, p.excerpt, p.coverImage, p.createdAt,
+                    a.id, a.name, a.photo,
+                    (SELECT COUNT(c) FROM Comment c WHERE c.post = p),
+                    p.likeCount)
+            FROM Post p JOIN p.author a JOIN p.tags t
+            WHERE t.id = :tagId
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostCardDto> findCardsByTagFirstPage(@Param("tagId") Long tagId, Limit limit);
+
+    @Query("""
+            SELECT new com.example.welog.dto.PostCardDto(p.id, p.slug, p.title, p.excerpt, p.coverImage, p.createdAt,
+                    a.id, a.name, a.photo,
+                    (SELECT COUNT(c) FROM Comment c WHERE c.post = p),
+                    p.likeCount)
+            FROM Post p JOIN p.author a JOIN p.tags t
+            WHERE t.id = :tagId AND (p.createdAt, p.id) < (:createdAt, :id)
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostCardDto> findCardsByTagPageAfter(@Param("tagId") Long tagId, @Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Straight from the join table, so it also answers for a post that is being soft-deleted
+    @NativeQuery("SELECT CAST(tag_id AS BIGINT) FROM posts_tags WHERE post_id = ?1")
+    List<Long> findTagIdsByPostId(Long postId);
+
+    @Query("SELECT p.id AS postId, t.name AS name FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<PostTagName> findTagNamesByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    interface PostVersion {
+        OffsetDateTime getUpdatedAt();
+
+        OffsetDateTime getAuthorUpdatedAt();
+
+        Integer getTagCount();
+
+        OffsetDateTime getTagsUpdatedAt();
+
+        Long getCommentCount();
+
+        OffsetDateTime getCommentsCreatedAt();
+
+        OffsetDateTime getCommentsUpdatedAt();
+
+        OffsetDateTime getCommentersUpdatedAt();
+
+        Long getLikeCount();
+    }
+
+    interface PostIndexRow {
+        Long getId();
+
+        String getSlug();
+
+        String getTitle();
+
+        String getExcerpt();
+
+        String getContent();
+    }
+
+    interface PostSuggestionRow {
+        Long getId();
+
+        String getSlug();
+
+        String getTitle();
+
+        Long getLikeCount();
+    }
+
+    interface PostSlug {
+        Long getId();
+
+        String getSlug();
+    }
+
+    interface PostTagName {
+        Long getPostId();
+
+        String getName();
+    }
 }
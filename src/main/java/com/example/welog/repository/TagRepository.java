@@ -1,9 +1,15 @@
 package com.example.welog.repository;
 
 import com.example.welog.model.Tag;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +20,41 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     
     List<Tag> findByNameIn(List<String> names);
     
-    @Query("SELECT t FROM Tag t JOIN t.posts p GROUP BY t ORDER BY COUNT(p) DESC")
-    List<Tag> findPopularTags();
+    // Served from tags.post_count (idx_tags_post_count_id); TagPopularityIndex keeps the same ranking in memory
+    @Query("SELECT t FROM Tag t ORDER BY t.postCount DESC, t.id")
+    List<Tag> findPopularTags(Limit limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Tag t SET t.postCount = t.postCount + :delta WHERE t.id IN :ids")
+    int adjustPostCounts(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    // Drift repair: recounts every tag and only writes the ones that disagree; returns how many were off
+    @Modifying
+    @Transactional
+    @NativeQuery("""
+            UPDATE tags SET post_count = (
+                SELECT COUNT(*) FROM posts_tags pt JOIN posts p ON p.id = pt.post_id
+                WHERE pt.tag_id = tags.id AND p.deleted_at IS NULL)
+            WHERE post_count <> (
+                SELECT COUNT(*) FROM posts_tags pt JOIN posts p ON p.id = pt.post_id
+                WHERE pt.tag_id = tags.id AND p.deleted_at IS NULL)
+            """)
+    int reconcilePostCounts();
     
     boolean existsByName(String name);
+
+    // Every tag with its maintained post count (TagPopularityIndex, SuggestionIndex)
+    @Query("SELECT t.id AS id, t.name AS name, t.postCount AS postCount FROM Tag t")
+    List<TagPostCount> findTagPostCounts();
+
+    @Query("SELECT t.id AS id, t.name AS name, t.postCount AS postCount FROM Tag t WHERE t.id IN :ids")
+    List<TagPostCount> findTagPostCountsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface TagPostCount {
+        Long getId();
+
+        String getName();
+
+        Long getPostCount();
+    }
 }
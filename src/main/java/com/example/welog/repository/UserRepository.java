@@ -1,13 +1,20 @@
 package com.example.welog.repository;
 
+import com.example.welog.dto.UserSummaryDto;
 import com.example.welog.model.User;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -16,9 +23,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Boolean existsByEmail(String email);
 
+    // Roles are batch-initialized for the whole page (hibernate.default_batch_fetch_size)
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Version probe for conditional GET of a profile
+    @Query("SELECT u.updatedAt AS updatedAt, SIZE(u.roles) AS roleCount FROM User u WHERE u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+
     @Modifying
     @Transactional
     @NativeQuery("UPDATE users SET deleted_at = NOW() where id=?1")
     void softDelete(Long id);
-}
 
+    // Latest actors of coalesced notifications (NotificationViewAssembler), for a whole page at once
+    @Query("SELECT new com.example.welog.dto.UserSummaryDto(u.id, u.name, u.photo) FROM User u WHERE u.id IN :ids")
+    List<UserSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Notification badge: a primary key lookup, never a COUNT over notifications
+    @Query("SELECT u.unreadNotificationCount FROM User u WHERE u.id = :id")
+    Optional<Integer> findUnreadNotificationCountById(@Param("id") Long id);
+
+    // Caller holds the transaction that flipped the notifications; the floor guards against a counter that drifted low
+    @Modifying
+    @NativeQuery("UPDATE users SET unread_notification_count = GREATEST(unread_notification_count - ?2, 0) WHERE id = ?1")
+    int decrementUnreadNotificationCount(Long id, int by);
+
+    interface UserVersion {
+        OffsetDateTime getUpdatedAt();
+
+        Integer getRoleCount();
+    }
+}
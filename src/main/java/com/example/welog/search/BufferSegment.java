@@ -0,0 +1,155 @@
+package com.example.welog.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory, append-only segment collecting changes since the last flush.
+ * Replacing or deleting a document only clears its live bit; the flush writes live documents only.
+ */
+class BufferSegment implements Segment {
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> ordinalsByPostId = new HashMap<>();
+    // term -> flattened (ordinal, termFreq) pairs in ordinal order
+    private final Map<String, int[]> postings = new HashMap<>();
+    private final Map<String, Integer> postingSizes = new HashMap<>();
+    private final BitSet live = new BitSet();
+    // Posts deleted since the last flush; written with the segment so older segments are masked on reopen
+    private final Set<Long> tombstones = new HashSet<>();
+
+    // The caller deletes any previous version of the post first
+    int add(long postId, String slug, String title, Map<String, Integer> termFreqs, int length) {
+        tombstones.remove(postId);
+
+        int ordinal = docs.size();
+        docs.add(new Doc(postId, slug, title, length));
+        ordinalsByPostId.put(postId, ordinal);
+        live.set(ordinal);
+
+        termFreqs.forEach((term, freq) -> {
+            int size = postingSizes.getOrDefault(term, 0);
+            int[] pairs = postings.get(term);
+            if (pairs == null || pairs.length < size + 2) {
+                pairs = pairs == null ? new int[4] : Arrays.copyOf(pairs, pairs.length * 2);
+                postings.put(term, pairs);
+            }
+            pairs[size] = ordinal;
+            pairs[size + 1] = freq;
+            postingSizes.put(term, size + 2);
+        });
+        return ordinal;
+    }
+
+    // Returns the length of the removed live document, or -1 if the post was not live here
+    int delete(long postId) {
+        Integer ordinal = ordinalsByPostId.remove(postId);
+        if (ordinal == null || !live.get(ordinal)) {
+            return -1;
+        }
+        live.clear(ordinal);
+        return docs.get(ordinal).length;
+    }
+
+    void addTombstone(long postId) {
+        tombstones.add(postId);
+    }
+
+    Set<Long> tombstones() {
+        return tombstones;
+    }
+
+    boolean isEmpty() {
+        return docs.isEmpty() && tombstones.isEmpty();
+    }
+
+    int liveCount() {
+        return live.cardinality();
+    }
+
+    Set<String> terms() {
+        return postings.keySet();
+    }
+
+    @Override
+    public int docCount() {
+        return docs.size();
+    }
+
+    @Override
+    public boolean isLive(int ordinal) {
+        return live.get(ordinal);
+    }
+
+    @Override
+    public long postId(int ordinal) {
+        return docs.get(ordinal).postId;
+    }
+
+    @Override
+    public int docLength(int ordinal) {
+        return docs.get(ordinal).length;
+    }
+
+    @Override
+    public String slug(int ordinal) {
+        return docs.get(ordinal).slug;
+    }
+
+    @Override
+    public String title(int ordinal) {
+        return docs.get(ordinal).title;
+    }
+
+    @Override
+    public PostingsIterator postings(String term) {
+        int[] pairs = postings.get(term);
+        if (pairs == null) {
+            return null;
+        }
+        int size = postingSizes.get(term);
+        return new PostingsIterator() {
+            private int position = -2;
+
+            @Override
+            public int docFreq() {
+                return size / 2;
+            }
+
+            @Override
+            public boolean next() {
+                position += 2;
+                return position < size;
+            }
+
+            @Override
+            public int ordinal() {
+                return pairs[position];
+            }
+
+            @Override
+            public int termFreq() {
+                return pairs[position + 1];
+            }
+        };
+    }
+
+    private static class Doc {
+        private final long postId;
+        private final String slug;
+        private final String title;
+        private final int length;
+
+        Doc(long postId, String slug, String title, int length) {
+            this.postId = postId;
+            this.slug = slug;
+            this.title = title;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.welog.search;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Read-only view of a segment file written by SegmentWriter. The file is memory-mapped; nothing but the
+ * live bits lives on the heap. Terms are found by binary search over the term table.
+ */
+class DiskSegment implements Segment {
+    private final Path path;
+    private final long generation;
+    private final MappedByteBuffer buffer;
+    private final long watermark;
+    private final int docCount;
+    private final int termCount;
+    private final int tombstoneCount;
+    private final long totalLength;
+    private final int termTableOffset;
+    private final int docIdsOffset;
+    private final int docLengthsOffset;
+    private final int storedOffsetsOffset;
+    private final int tombstonesOffset;
+    private final BitSet live;
+
+    DiskSegment(Path path, long generation) throws IOException {
+        this.path = path;
+        this.generation = generation;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segment too large to map: " + path);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != SegmentWriter.MAGIC || buffer.getInt(4) != SegmentWriter.VERSION) {
+            throw new IOException("Not a segment file: " + path);
+        }
+        this.watermark = buffer.getLong(8);
+        this.docCount = buffer.getInt(16);
+        this.termCount = buffer.getInt(20);
+        this.tombstoneCount = buffer.getInt(24);
+        this.totalLength = buffer.getLong(28);
+        this.termTableOffset = (int) buffer.getLong(36);
+        this.docIdsOffset = (int) buffer.getLong(44);
+        this.docLengthsOffset = (int) buffer.getLong(52);
+        this.storedOffsetsOffset = (int) buffer.getLong(60);
+        this.tombstonesOffset = (int) buffer.getLong(68);
+
+        this.live = new BitSet(docCount);
+        live.set(0, docCount);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long watermark() {
+        return watermark;
+    }
+
+    long sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    int tombstoneCount() {
+        return tombstoneCount;
+    }
+
+    long tombstone(int index) {
+        return buffer.getLong(tombstonesOffset + 8 * index);
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    byte[] termAt(int index) {
+        int entry = (int) buffer.getLong(termTableOffset + 8 * index);
+        byte[] term = new byte[Short.toUnsignedInt(buffer.getShort(entry))];
+        buffer.get(entry + 2, term);
+        return term;
+    }
+
+    // Binary search over post ids; -1 if the post is not in this segment
+    int ordinalOf(long postId) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = postId(mid);
+            if (midId < postId) {
+                low = mid + 1;
+            } else if (midId > postId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Clears the live bit; true if the document was live
+    boolean delete(int ordinal) {
+        if (!live.get(ordinal)) {
+            return false;
+        }
+        live.clear(ordinal);
+        return true;
+    }
+
+    int liveCount() {
+        return live.cardinality();
+    }
+
+    @Override
+    public int docCount() {
+        return docCount;
+    }
+
+    @Override
+    public boolean isLive(int ordinal) {
+        return live.get(ordinal);
+    }
+
+    @Override
+    public long postId(int ordinal) {
+        return buffer.getLong(docIdsOffset + 8 * ordinal);
+    }
+
+    @Override
+    public int docLength(int ordinal) {
+        return buffer.getInt(docLengthsOffset + 4 * ordinal);
+    }
+
+    @Override
+    public String slug(int ordinal) {
+        return storedField(ordinal, 0);
+    }
+
+    @Override
+    public String title(int ordinal) {
+        return storedField(ordinal, 1);
+    }
+
+    @Override
+    public PostingsIterator postings(String term) {
+        int entry = findTerm(term.getBytes(StandardCharsets.UTF_8));
+        return entry < 0 ? null : new DiskPostingsIterator(entry);
+    }
+
+    PostingsIterator postings(int termIndex) {
+        return new DiskPostingsIterator((int) buffer.getLong(termTableOffset + 8 * termIndex));
+    }
+
+    // Offset of the term's entry, or -1
+    private int findTerm(byte[] term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = (int) buffer.getLong(termTableOffset + 8 * mid);
+            int cmp = compareTerm(entry, term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int compareTerm(int entry, byte[] term) {
+        int length = Short.toUnsignedInt(buffer.getShort(entry));
+        int common = Math.min(length, term.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.toUnsignedInt(buffer.get(entry + 2 + i)) - Byte.toUnsignedInt(term[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - term.length;
+    }
+
+    private String storedField(int ordinal, int field) {
+        int position = (int) buffer.getLong(storedOffsetsOffset + 8 * ordinal);
+        for (int i = 0; i < field; i++) {
+            position += 2 + Short.toUnsignedInt(buffer.getShort(position));
+        }
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(position))];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Decodes (ordinal delta, termFreq) varint pairs straight from the mapped file
+    private class DiskPostingsIterator implements PostingsIterator {
+        private final int docFreq;
+        private int position;
+        private int remaining;
+        private int ordinal;
+        private int termFreq;
+
+        DiskPostingsIterator(int entry) {
+            int afterTerm = entry + 2 + Short.toUnsignedInt(buffer.getShort(entry));
+            this.docFreq = buffer.getInt(afterTerm);
+            this.position = afterTerm + 8;
+            this.remaining = docFreq;
+        }
+
+        @Override
+        public int docFreq() {
+            return docFreq;
+        }
+
+        @Override
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            ordinal += readVarInt();
+            termFreq = readVarInt();
+            return true;
+        }
+
+        @Override
+        public int ordinal() {
+            return ordinal;
+        }
+
+        @Override
+        public int termFreq() {
+            return termFreq;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.welog.search;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The fields of a post that go into the search index. Slug and title are also stored, so hits can be rendered
+ * without a database round trip.
+ */
+@Getter
+@AllArgsConstructor
+public class PostDocument {
+    private final long postId;
+    private final String slug;
+    private final String title;
+    private final String excerpt;
+    private final String content;
+    private final List<String> tags;
+}
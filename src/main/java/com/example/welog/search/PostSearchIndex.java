@@ -0,0 +1,679 @@
+package com.example.welog.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.example.welog.dto.PostSearchHitDto;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.utils.CursorUtils;
+
+/**
+ * Embedded BM25 index over post titles, excerpts, tags and content, so search traffic does not reach the database.
+ * <p>
+ * Changes go to an in-memory buffer segment that is flushed to an immutable, memory-mapped segment file every
+ * {@code flush-docs} documents and on shutdown. A newer segment masks older versions of the same post (by post id,
+ * plus tombstones for deletes), so reopening the directory is a replay in generation order rather than a rebuild.
+ * Once there are more than {@code max-segments} segments, the newest ones are merged into one, up to
+ * {@code max-segment-size}.
+ * <p>
+ * On startup the index catches up from the database: a full build if the directory is empty, otherwise the posts
+ * changed since the newest segment was written. After that it follows PostChangedEvent.
+ * Searches share a read lock; updates, flushes and merges take the write lock.
+ */
+@Component
+public class PostSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Field boosts: a title term counts as three body terms, a tag as two
+    private static final int TITLE_BOOST = 3;
+    private static final int TAG_BOOST = 2;
+    private static final int MAX_QUERY_TERMS = 32;
+    private static final int SYNC_BATCH_SIZE = 500;
+    // updated_at is taken when the writing transaction starts, which can be well before it commits
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("seg-(\\d+)\\.idx");
+    // Worst hit first, so the head of the top-k queue is the one to evict
+    private static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingDouble(hit -> hit.score).thenComparingLong(hit -> hit.postId);
+
+    private final PostRepository postRepository;
+    private final boolean enabled;
+    private final Path directory;
+    private final int flushDocs;
+    private final int maxSegments;
+    private final long maxSegmentBytes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Oldest first
+    private final List<DiskSegment> segments = new ArrayList<>();
+    private BufferSegment buffer = new BufferSegment();
+    private long nextGeneration;
+    private long liveDocs;
+    private long liveLength;
+
+    public PostSearchIndex(PostRepository postRepository,
+                           @Value("${app.search.index.enabled:true}") boolean enabled,
+                           @Value("${app.search.index.dir:data/post-index}") String directory,
+                           @Value("${app.search.index.flush-docs:10000}") int flushDocs,
+                           @Value("${app.search.index.max-segments:8}") int maxSegments,
+                           @Value("${app.search.index.max-segment-size:1GB}") DataSize maxSegmentSize) {
+        this.postRepository = postRepository;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.flushDocs = flushDocs;
+        this.maxSegments = maxSegments;
+        // A segment is mapped as a single buffer
+        this.maxSegmentBytes = Math.min(maxSegmentSize.toBytes(), Integer.MAX_VALUE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            List<Long> generations = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        generations.add(Long.parseLong(matcher.group(1)));
+                    } else if (file.getFileName().toString().endsWith(".tmp")) {
+                        Files.delete(file); // a flush or merge that never finished
+                    }
+                }
+            }
+            generations.sort(null);
+            for (long generation : generations) {
+                segments.add(new DiskSegment(segmentPath(generation), generation));
+            }
+            nextGeneration = generations.isEmpty() ? 1 : generations.getLast() + 1;
+
+            replayMasks();
+            for (DiskSegment segment : segments) {
+                for (int ordinal = 0; ordinal < segment.docCount(); ordinal++) {
+                    if (segment.isLive(ordinal)) {
+                        liveDocs++;
+                        liveLength += segment.docLength(ordinal);
+                    }
+                }
+            }
+            logger.info("Search index opened at {}: {} segments, {} live posts", directory.toAbsolutePath(), segments.size(), liveDocs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open search index at " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSync() {
+        if (enabled) {
+            Thread.ofVirtual().name("post-search-index-sync").start(this::syncWithDatabase);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            delete(event.getPostId());
+            return;
+        }
+
+        List<PostRepository.PostIndexRow> rows = postRepository.findIndexRowsByIdIn(List.of(event.getPostId()));
+        if (rows.isEmpty()) {
+            delete(event.getPostId());
+        } else {
+            indexRows(rows);
+        }
+    }
+
+    public void index(PostDocument document) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = addTerms(termFreqs, document.getTitle(), TITLE_BOOST)
+                + addTerms(termFreqs, document.getExcerpt(), 1)
+                + addTerms(termFreqs, document.getContent(), 1);
+        if (document.getTags() != null) {
+            for (String tag : document.getTags()) {
+                length += addTerms(termFreqs, tag, TAG_BOOST);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLive(document.getPostId());
+            buffer.add(document.getPostId(), document.getSlug(), document.getTitle(), termFreqs, length);
+            liveDocs++;
+            liveLength += length;
+            if (buffer.docCount() >= flushDocs) {
+                flushLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLive(postId);
+            buffer.addTombstone(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            flushLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Top-k posts by BM25 score (ties by post id, descending). With {@code after}, only hits ranked strictly
+     * below that (score, id) are returned, which is how search_after pages are served.
+     */
+    public List<PostSearchHitDto> search(String query, int k, CursorUtils.ScoreCursor after) {
+        List<String> terms = Tokenizer.tokenize(query).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        if (terms.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+
+            List<Segment> all = new ArrayList<>(segments);
+            all.add(buffer);
+
+            Segment.PostingsIterator[][] postings = new Segment.PostingsIterator[all.size()][terms.size()];
+            float[] idf = new float[terms.size()];
+            for (int t = 0; t < terms.size(); t++) {
+                long docFreq = 0;
+                for (int s = 0; s < all.size(); s++) {
+                    postings[s][t] = all.get(s).postings(terms.get(t));
+                    if (postings[s][t] != null) {
+                        docFreq += postings[s][t].docFreq();
+                    }
+                }
+                docFreq = Math.min(docFreq, liveDocs);
+                idf[t] = (float) Math.log(1 + (liveDocs - docFreq + 0.5) / (docFreq + 0.5));
+            }
+
+            float averageLength = (float) liveLength / liveDocs;
+            PriorityQueue<Hit> top = new PriorityQueue<>(k + 1, WORST_FIRST);
+            for (int s = 0; s < all.size(); s++) {
+                scoreSegment(all.get(s), postings[s], idf, averageLength, k, after, top);
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(WORST_FIRST.reversed());
+            return hits.stream()
+                    .map(hit -> new PostSearchHitDto(hit.postId, hit.segment.slug(hit.ordinal), hit.segment.title(hit.ordinal), hit.score))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long liveDocs() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Document-at-a-time: walk the query terms' postings in ordinal order, scoring each document once
+    private void scoreSegment(Segment segment, Segment.PostingsIterator[] postings, float[] idf, float averageLength,
+                              int k, CursorUtils.ScoreCursor after, PriorityQueue<Hit> top) {
+        Segment.PostingsIterator[] active = new Segment.PostingsIterator[postings.length];
+        float[] weights = new float[postings.length];
+        int activeCount = 0;
+        for (int t = 0; t < postings.length; t++) {
+            if (postings[t] != null && postings[t].next()) {
+                active[activeCount] = postings[t];
+                weights[activeCount++] = idf[t];
+            }
+        }
+
+        while (activeCount > 0) {
+            int ordinal = Integer.MAX_VALUE;
+            for (int i = 0; i < activeCount; i++) {
+                ordinal = Math.min(ordinal, active[i].ordinal());
+            }
+
+            boolean live = segment.isLive(ordinal);
+            float norm = live ? K1 * (1 - B + B * segment.docLength(ordinal) / averageLength) : 0;
+            float score = 0;
+            for (int i = 0; i < activeCount; ) {
+                if (active[i].ordinal() == ordinal) {
+                    if (live) {
+                        int termFreq = active[i].termFreq();
+                        score += weights[i] * termFreq * (K1 + 1) / (termFreq + norm);
+                    }
+                    if (!active[i].next()) {
+                        active[i] = active[--activeCount];
+                        weights[i] = weights[activeCount];
+                        continue;
+                    }
+                }
+                i++;
+            }
+
+            if (live) {
+                offer(top, k, after, score, segment, ordinal);
+            }
+        }
+    }
+
+    private static void offer(PriorityQueue<Hit> top, int k, CursorUtils.ScoreCursor after, float score, Segment segment, int ordinal) {
+        long postId = segment.postId(ordinal);
+        if (after != null && !(score < after.getScore() || (score == after.getScore() && postId < after.getId()))) {
+            return;
+        }
+
+        Hit hit = new Hit(score, postId, segment, ordinal);
+        if (top.size() < k) {
+            top.add(hit);
+        } else if (WORST_FIRST.compare(hit, top.peek()) > 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    private void syncWithDatabase() {
+        try {
+            long startedAt = System.currentTimeMillis();
+            long watermark;
+            lock.readLock().lock();
+            try {
+                watermark = segments.stream().mapToLong(DiskSegment::watermark).max().orElse(-1);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (watermark < 0) {
+                rebuild();
+                // Rows read early in the build may have changed before it finished
+                catchUp(startedAt);
+            } else {
+                catchUp(watermark);
+            }
+            flush();
+            logger.info("Search index in sync with the database: {} live posts in {} ms", liveDocs(), System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            logger.error("Search index sync failed; serving what is indexed", e);
+        }
+    }
+
+    private void rebuild() {
+        long afterId = 0;
+        List<PostRepository.PostIndexRow> rows;
+        do {
+            rows = postRepository.findIndexRowsAfter(afterId, Limit.of(SYNC_BATCH_SIZE));
+            indexRows(rows);
+            if (!rows.isEmpty()) {
+                afterId = rows.getLast().getId();
+            }
+        } while (rows.size() == SYNC_BATCH_SIZE);
+    }
+
+    private void catchUp(long watermark) {
+        OffsetDateTime since = OffsetDateTime.ofInstant(Instant.ofEpochMilli(watermark).minus(CATCH_UP_MARGIN), ZoneOffset.UTC);
+
+        List<Long> changed = postRepository.findIdsUpdatedSince(since);
+        for (int from = 0; from < changed.size(); from += SYNC_BATCH_SIZE) {
+            indexRows(postRepository.findIndexRowsByIdIn(changed.subList(from, Math.min(from + SYNC_BATCH_SIZE, changed.size()))));
+        }
+        postRepository.findIdsDeletedSince(since).forEach(this::delete);
+    }
+
+    private void indexRows(List<PostRepository.PostIndexRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<String>> tagsByPostId = postRepository.findTagNamesByPostIdIn(rows.stream().map(PostRepository.PostIndexRow::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(PostRepository.PostTagName::getPostId,
+                        Collectors.mapping(PostRepository.PostTagName::getName, Collectors.toList())));
+
+        for (PostRepository.PostIndexRow row : rows) {
+            index(new PostDocument(row.getId(), row.getSlug(), row.getTitle(), row.getExcerpt(), row.getContent(),
+                    tagsByPostId.getOrDefault(row.getId(), List.of())));
+        }
+    }
+
+    private static int addTerms(Map<String, Integer> termFreqs, String text, int boost) {
+        List<String> terms = Tokenizer.tokenize(text);
+        for (String term : terms) {
+            termFreqs.merge(term, boost, Integer::sum);
+        }
+        return terms.size() * boost;
+    }
+
+    // Caller holds the write lock
+    private void removeLive(long postId) {
+        int length = buffer.delete(postId);
+        if (length >= 0) {
+            liveDocs--;
+            liveLength -= length;
+        }
+        for (DiskSegment segment : segments) {
+            int ordinal = segment.ordinalOf(postId);
+            if (ordinal >= 0 && segment.delete(ordinal)) {
+                liveDocs--;
+                liveLength -= segment.docLength(ordinal);
+            }
+        }
+    }
+
+    // A post in a newer segment, or tombstoned by it, is dead in every older one
+    private void replayMasks() {
+        for (int newer = 1; newer < segments.size(); newer++) {
+            DiskSegment segment = segments.get(newer);
+            for (int older = 0; older < newer; older++) {
+                DiskSegment olderSegment = segments.get(older);
+                for (int ordinal = 0; ordinal < segment.docCount(); ordinal++) {
+                    mask(olderSegment, segment.postId(ordinal));
+                }
+                for (int i = 0; i < segment.tombstoneCount(); i++) {
+                    mask(olderSegment, segment.tombstone(i));
+                }
+            }
+        }
+    }
+
+    private static void mask(DiskSegment segment, long postId) {
+        int ordinal = segment.ordinalOf(postId);
+        if (ordinal >= 0) {
+            segment.delete(ordinal);
+        }
+    }
+
+    // Caller holds the write lock. A failed flush keeps the buffer, so nothing is lost but durability
+    private void flushLocked() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+
+        BufferSegment flushing = buffer;
+        int[] ordinals = IntStream.range(0, flushing.docCount())
+                .filter(flushing::isLive)
+                .boxed()
+                .sorted(Comparator.comparingLong(flushing::postId))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] newOrdinals = new int[flushing.docCount()];
+        Arrays.fill(newOrdinals, -1);
+        long[] postIds = new long[ordinals.length];
+        int[] lengths = new int[ordinals.length];
+        String[] slugs = new String[ordinals.length];
+        String[] titles = new String[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            newOrdinals[ordinals[i]] = i;
+            postIds[i] = flushing.postId(ordinals[i]);
+            lengths[i] = flushing.docLength(ordinals[i]);
+            slugs[i] = flushing.slug(ordinals[i]);
+            titles[i] = flushing.title(ordinals[i]);
+        }
+        long[] tombstones = flushing.tombstones().stream().mapToLong(Long::longValue).sorted().toArray();
+
+        long generation = nextGeneration;
+        Path file = segmentPath(generation);
+        try (SegmentWriter writer = new SegmentWriter(file)) {
+            PostingsCollector collector = new PostingsCollector();
+            List<byte[]> terms = flushing.terms().stream()
+                    .map(term -> term.getBytes(StandardCharsets.UTF_8))
+                    .sorted(Arrays::compareUnsigned)
+                    .toList();
+            for (byte[] term : terms) {
+                collector.reset();
+                collector.addRemapped(flushing.postings(new String(term, StandardCharsets.UTF_8)), newOrdinals);
+                collector.writeTo(writer, term);
+            }
+            writer.finish(System.currentTimeMillis(), postIds, lengths, slugs, titles, tombstones);
+
+            segments.add(new DiskSegment(file, generation));
+            nextGeneration++;
+            buffer = new BufferSegment();
+        } catch (IOException e) {
+            logger.error("Search index flush failed, keeping changes in memory", e);
+            return;
+        }
+
+        try {
+            maybeMerge();
+        } catch (IOException e) {
+            logger.error("Search index merge failed", e);
+        }
+    }
+
+    // Merges the newest segments that fit under the size cap into one; a contiguous tail keeps replay order valid
+    private void maybeMerge() throws IOException {
+        if (segments.size() <= maxSegments) {
+            return;
+        }
+
+        int from = segments.size();
+        long bytes = 0;
+        while (from > 0 && bytes + segments.get(from - 1).sizeInBytes() <= maxSegmentBytes) {
+            bytes += segments.get(--from).sizeInBytes();
+        }
+        if (segments.size() - from < 2) {
+            return;
+        }
+        merge(new ArrayList<>(segments.subList(from, segments.size())), from);
+    }
+
+    private void merge(List<DiskSegment> run, int from) throws IOException {
+        // Live documents of the run in post id order; each segment is already sorted, so this is a k-way merge
+        int total = run.stream().mapToInt(DiskSegment::liveCount).sum();
+        long[] postIds = new long[total];
+        int[] lengths = new int[total];
+        String[] slugs = new String[total];
+        String[] titles = new String[total];
+        int[][] newOrdinals = new int[run.size()][];
+        int[] cursors = new int[run.size()];
+        for (int s = 0; s < run.size(); s++) {
+            newOrdinals[s] = new int[run.get(s).docCount()];
+            Arrays.fill(newOrdinals[s], -1);
+        }
+        for (int next = 0; next < total; next++) {
+            int best = -1;
+            for (int s = 0; s < run.size(); s++) {
+                DiskSegment segment = run.get(s);
+                while (cursors[s] < segment.docCount() && !segment.isLive(cursors[s])) {
+                    cursors[s]++;
+                }
+                if (cursors[s] < segment.docCount()
+                        && (best < 0 || segment.postId(cursors[s]) < run.get(best).postId(cursors[best]))) {
+                    best = s;
+                }
+            }
+            DiskSegment segment = run.get(best);
+            int ordinal = cursors[best]++;
+            newOrdinals[best][ordinal] = next;
+            postIds[next] = segment.postId(ordinal);
+            lengths[next] = segment.docLength(ordinal);
+            slugs[next] = segment.slug(ordinal);
+            titles[next] = segment.title(ordinal);
+        }
+
+        // Tombstones stay: they still mask segments older than the run on reopen
+        long[] tombstones = run.stream()
+                .flatMapToLong(segment -> IntStream.range(0, segment.tombstoneCount()).mapToLong(segment::tombstone))
+                .distinct()
+                .sorted()
+                .toArray();
+        long watermark = run.stream().mapToLong(DiskSegment::watermark).max().orElse(0);
+
+        long generation = nextGeneration;
+        Path file = segmentPath(generation);
+        try (SegmentWriter writer = new SegmentWriter(file)) {
+            PriorityQueue<TermCursor> terms = new PriorityQueue<>((a, b) -> Arrays.compareUnsigned(a.term, b.term));
+            for (int s = 0; s < run.size(); s++) {
+                if (run.get(s).termCount() > 0) {
+                    terms.add(new TermCursor(s, 0, run.get(s).termAt(0)));
+                }
+            }
+
+            PostingsCollector collector = new PostingsCollector();
+            while (!terms.isEmpty()) {
+                byte[] term = terms.peek().term;
+                collector.reset();
+                while (!terms.isEmpty() && Arrays.equals(terms.peek().term, term)) {
+                    TermCursor cursor = terms.poll();
+                    DiskSegment segment = run.get(cursor.segment);
+                    collector.addRemapped(segment.postings(cursor.index), newOrdinals[cursor.segment]);
+                    if (cursor.index + 1 < segment.termCount()) {
+                        terms.add(new TermCursor(cursor.segment, cursor.index + 1, segment.termAt(cursor.index + 1)));
+                    }
+                }
+                collector.writeTo(writer, term);
+            }
+            writer.finish(watermark, postIds, lengths, slugs, titles, tombstones);
+        }
+
+        DiskSegment merged = new DiskSegment(file, generation);
+        nextGeneration++;
+        segments.subList(from, segments.size()).clear();
+        segments.add(merged);
+        for (DiskSegment segment : run) {
+            Files.deleteIfExists(segment.path());
+        }
+        logger.info("Merged {} search index segments into {} ({} posts)", run.size(), file.getFileName(), total);
+    }
+
+    private Path segmentPath(long generation) {
+        return directory.resolve("seg-" + generation + ".idx");
+    }
+
+    private static class Hit {
+        private final float score;
+        private final long postId;
+        private final Segment segment;
+        private final int ordinal;
+
+        Hit(float score, long postId, Segment segment, int ordinal) {
+            this.score = score;
+            this.postId = postId;
+            this.segment = segment;
+            this.ordinal = ordinal;
+        }
+    }
+
+    private static class TermCursor {
+        private final int segment;
+        private final int index;
+        private final byte[] term;
+
+        TermCursor(int segment, int index, byte[] term) {
+            this.segment = segment;
+            this.index = index;
+            this.term = term;
+        }
+    }
+
+    // Gathers one term's postings under new ordinals, dropping dead documents, and writes them in ordinal order
+    private static class PostingsCollector {
+        private long[] packed = new long[64];
+        private int size;
+        private int[] pairs = new int[128];
+
+        void reset() {
+            size = 0;
+        }
+
+        void addRemapped(Segment.PostingsIterator postings, int[] newOrdinals) {
+            while (postings.next()) {
+                int ordinal = newOrdinals[postings.ordinal()];
+                if (ordinal >= 0) {
+                    if (size == packed.length) {
+                        packed = Arrays.copyOf(packed, size * 2);
+                    }
+                    packed[size++] = ((long) ordinal << 32) | postings.termFreq();
+                }
+            }
+        }
+
+        void writeTo(SegmentWriter writer, byte[] term) throws IOException {
+            Arrays.sort(packed, 0, size);
+            if (pairs.length < size * 2) {
+                pairs = new int[size * 2];
+            }
+            for (int i = 0; i < size; i++) {
+                pairs[2 * i] = (int) (packed[i] >>> 32);
+                pairs[2 * i + 1] = (int) packed[i];
+            }
+            writer.addTerm(term, pairs, size * 2);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.welog.search;
+
+/**
+ * A slice of the post index. Documents are addressed by ordinal (0..docCount-1); deleted or superseded documents
+ * stay in place and are masked by the live bits. Postings are always in ordinal order.
+ */
+interface Segment {
+    int docCount();
+
+    boolean isLive(int ordinal);
+
+    long postId(int ordinal);
+
+    int docLength(int ordinal);
+
+    String slug(int ordinal);
+
+    String title(int ordinal);
+
+    // null if no document in this segment contains the term
+    PostingsIterator postings(String term);
+
+    interface PostingsIterator {
+        // Documents containing the term, live or not (as in Lucene, deletes only leave idf slightly stale)
+        int docFreq();
+
+        boolean next();
+
+        int ordinal();
+
+        int termFreq();
+    }
+}
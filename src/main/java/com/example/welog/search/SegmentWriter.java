@@ -0,0 +1,187 @@
+package com.example.welog.search;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams one immutable segment file. Layout (big-endian):
+ * <pre>
+ * header      magic, version, watermark, docCount, termCount, tombstoneCount, totalLength, section offsets
+ * terms       per term, in unsigned UTF-8 byte order: len(u16) bytes docFreq(i32) postingsLen(i32) postings
+ *             postings are (ordinal delta, termFreq) varint pairs
+ * term table  i64 offset of every term entry, for binary search
+ * docs        i64 postId[], i32 length[], i64 storedOffset[]   (ordinals in post id order)
+ * stored      per doc: len(u16) slug, len(u16) title
+ * tombstones  i64 postId[] of posts deleted before this segment was written
+ * </pre>
+ * The file is written under a temporary name and moved into place only once complete.
+ */
+final class SegmentWriter implements Closeable {
+    static final int MAGIC = 0x57494458; // "WIDX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 4 + 8 + 8 * 5;
+
+    private final Path target;
+    private final Path temp;
+    private final CountingOutputStream counter;
+    private final DataOutputStream out;
+    private long[] termOffsets = new long[1024];
+    private int termCount;
+    private byte[] lastTerm;
+    private final byte[] varintScratch = new byte[10];
+
+    SegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.counter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+        this.out = new DataOutputStream(counter);
+        out.write(new byte[HEADER_SIZE]);
+    }
+
+    /**
+     * Terms must arrive in unsigned UTF-8 byte order; pairs[0..length) holds (ordinal, termFreq) pairs sorted by ordinal.
+     */
+    void addTerm(byte[] term, int[] pairs, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        if (lastTerm != null && Arrays.compareUnsigned(lastTerm, term) >= 0) {
+            throw new IllegalStateException("Terms out of order");
+        }
+        lastTerm = term;
+
+        if (termCount == termOffsets.length) {
+            termOffsets = Arrays.copyOf(termOffsets, termCount * 2);
+        }
+        termOffsets[termCount++] = counter.count;
+
+        byte[] encoded = encodePostings(pairs, length);
+        out.writeShort(term.length);
+        out.write(term);
+        out.writeInt(length / 2);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    /**
+     * Writes everything after the postings and publishes the file. Docs must be sorted by post id.
+     */
+    void finish(long watermark, long[] postIds, int[] lengths, String[] slugs, String[] titles, long[] tombstones) throws IOException {
+        long termTableOffset = counter.count;
+        for (int i = 0; i < termCount; i++) {
+            out.writeLong(termOffsets[i]);
+        }
+
+        long totalLength = 0;
+        long docIdsOffset = counter.count;
+        for (long postId : postIds) {
+            out.writeLong(postId);
+        }
+        long docLengthsOffset = counter.count;
+        for (int length : lengths) {
+            out.writeInt(length);
+            totalLength += length;
+        }
+
+        // Stored fields go after the offset table, whose size is known up front
+        long storedOffsetsOffset = counter.count;
+        long storedStart = storedOffsetsOffset + 8L * postIds.length;
+        byte[][] stored = new byte[postIds.length * 2][];
+        long position = storedStart;
+        for (int i = 0; i < postIds.length; i++) {
+            stored[2 * i] = utf8(slugs[i]);
+            stored[2 * i + 1] = utf8(titles[i]);
+            out.writeLong(position);
+            position += 4 + stored[2 * i].length + stored[2 * i + 1].length;
+        }
+        for (byte[] field : stored) {
+            out.writeShort(field.length);
+            out.write(field);
+        }
+
+        long tombstonesOffset = counter.count;
+        for (long postId : tombstones) {
+            out.writeLong(postId);
+        }
+        out.close();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(watermark)
+                .putInt(postIds.length).putInt(termCount).putInt(tombstones.length).putLong(totalLength)
+                .putLong(termTableOffset).putLong(docIdsOffset).putLong(docLengthsOffset)
+                .putLong(storedOffsetsOffset).putLong(tombstonesOffset)
+                .flip();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        Files.deleteIfExists(temp);
+    }
+
+    private byte[] encodePostings(int[] pairs, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length * 5);
+        int previous = 0;
+        for (int i = 0; i < length; i += 2) {
+            putVarInt(buffer, pairs[i] - previous);
+            putVarInt(buffer, pairs[i + 1]);
+            previous = pairs[i];
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private void putVarInt(ByteBuffer buffer, int value) {
+        int length = 0;
+        while ((value & ~0x7F) != 0) {
+            varintScratch[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        varintScratch[length++] = (byte) value;
+        buffer.put(varintScratch, 0, length);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length > 0xFFFF ? Arrays.copyOf(bytes, 0xFFFF) : bytes;
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
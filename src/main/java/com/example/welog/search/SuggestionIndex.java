@@ -0,0 +1,224 @@
+package com.example.welog.search;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.welog.dto.SuggestionDto;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.event.PostTagsChangedEvent;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.repository.TagRepository;
+
+/**
+ * Autocomplete over post titles (weighted by likes) and tag names (weighted by post count), served from a
+ * {@link SuggestionTrie} so a keystroke never reaches the database.
+ * <p>
+ * Loaded once the application is ready and kept current after commit: post changes re-read the post's title,
+ * tag changes re-read only the tags the post gained or lost, and likes adjust the post's weight in place.
+ * Memory is bounded by {@code max-entries}: when full, the lightest entry is dropped. A dropped post comes back
+ * once a like makes it heavier than the lightest entry.
+ */
+@Component
+public class SuggestionIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    public static final String TYPE_POST = "post";
+    public static final String TYPE_TAG = "tag";
+    public static final int MAX_LIMIT = 20;
+    // Completions are matched on the first characters only; longer titles are cut when keyed
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final Comparator<SuggestionTrie.Entry> LIGHTEST_FIRST = Comparator.<SuggestionTrie.Entry>comparingLong(entry -> entry.weight)
+            .thenComparing(entry -> entry.type)
+            .thenComparingLong(entry -> entry.id);
+
+    private final PostRepository postRepository;
+    private final TagRepository tagRepository;
+    private final int maxEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final Map<String, SuggestionTrie.Entry> entriesById = new HashMap<>();
+    private final TreeSet<SuggestionTrie.Entry> byWeight = new TreeSet<>(LIGHTEST_FIRST);
+
+    public SuggestionIndex(PostRepository postRepository, TagRepository tagRepository,
+                           @Value("${app.search.suggest.max-entries:100000}") int maxEntries) {
+        this.postRepository = postRepository;
+        this.tagRepository = tagRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        postRepository.findSuggestionRows()
+                .forEach(row -> put(new SuggestionTrie.Entry(TYPE_POST, row.getId(), row.getTitle(), row.getSlug(), row.getLikeCount())));
+        refreshTags(null);
+        logger.info("Suggestion index loaded: {} entries", size());
+    }
+
+    /**
+     * Top completions of {@code query}, heaviest first. Matching ignores case and repeated whitespace.
+     */
+    public List<SuggestionDto> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.top(prefix, Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+                    .map(entry -> new SuggestionDto(entry.type, entry.text, entry.slug, entry.weight))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            remove(TYPE_POST, event.getPostId());
+        } else {
+            reloadPost(event.getPostId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostTagsChanged(PostTagsChangedEvent event) {
+        Set<Long> tagIds = new HashSet<>(event.getAddedTagIds());
+        tagIds.addAll(event.getRemovedTagIds());
+        if (!tagIds.isEmpty()) {
+            refreshTags(tagIds);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        boolean liked = event.getType() == PostLikeChangedEvent.Type.LIKED;
+        lock.writeLock().lock();
+        try {
+            SuggestionTrie.Entry current = entriesById.get(TYPE_POST + ":" + event.getPostId());
+            if (current != null) {
+                putLocked(new SuggestionTrie.Entry(TYPE_POST, current.id, current.text, current.slug, Math.max(0, current.weight + (liked ? 1 : -1))));
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Not indexed, most likely dropped as the lightest: a like may have made it heavy enough to come back
+        if (liked) {
+            reloadPost(event.getPostId());
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    // putLocked() turns the post away again if it is still the lightest
+    private void reloadPost(Long postId) {
+        postRepository.findSuggestionRowById(postId)
+                .ifPresent(row -> put(new SuggestionTrie.Entry(TYPE_POST, row.getId(), row.getTitle(), row.getSlug(), row.getLikeCount())));
+    }
+
+    // All tags (null) on load, otherwise only the given ones; a tag missing from the result has been deleted
+    private void refreshTags(Collection<Long> tagIds) {
+        List<TagRepository.TagPostCount> counts = tagIds == null ? tagRepository.findTagPostCounts() : tagRepository.findTagPostCountsByIdIn(tagIds);
+        lock.writeLock().lock();
+        try {
+            Set<String> seen = new HashSet<>();
+            for (TagRepository.TagPostCount count : counts) {
+                seen.add(TYPE_TAG + ":" + count.getId());
+                SuggestionTrie.Entry current = entriesById.get(TYPE_TAG + ":" + count.getId());
+                if (current == null || current.weight != count.getPostCount() || !current.text.equals(count.getName())) {
+                    putLocked(new SuggestionTrie.Entry(TYPE_TAG, count.getId(), count.getName(), null, count.getPostCount()));
+                }
+            }
+            entriesById.values().stream()
+                    .filter(entry -> TYPE_TAG.equals(entry.type) && !seen.contains(TYPE_TAG + ":" + entry.id))
+                    .filter(entry -> tagIds == null || tagIds.contains(entry.id))
+                    .toList()
+                    .forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(SuggestionTrie.Entry entry) {
+        lock.writeLock().lock();
+        try {
+            putLocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(String type, long id) {
+        lock.writeLock().lock();
+        try {
+            SuggestionTrie.Entry current = entriesById.get(type + ":" + id);
+            if (current != null) {
+                removeLocked(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(SuggestionTrie.Entry entry) {
+        SuggestionTrie.Entry current = entriesById.get(entry.type + ":" + entry.id);
+        if (current != null) {
+            removeLocked(current);
+        }
+        String key = normalize(entry.text);
+        if (key.isEmpty()) {
+            return;
+        }
+        if (trie.size() >= maxEntries) {
+            if (byWeight.isEmpty() || LIGHTEST_FIRST.compare(entry, byWeight.first()) <= 0) {
+                return; // it would be the first to go
+            }
+            removeLocked(byWeight.first());
+        }
+
+        trie.insert(key, entry);
+        entriesById.put(entry.type + ":" + entry.id, entry);
+        byWeight.add(entry);
+    }
+
+    private void removeLocked(SuggestionTrie.Entry entry) {
+        trie.remove(normalize(entry.text), entry);
+        entriesById.remove(entry.type + ":" + entry.id);
+        byWeight.remove(entry);
+    }
+}
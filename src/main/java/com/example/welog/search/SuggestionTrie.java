@@ -0,0 +1,249 @@
+package com.example.welog.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Radix trie (edges carry whole label runs, single-child chains are collapsed) from normalized keys to weighted
+ * entries. Every node keeps the largest weight in its subtree, so the top completions of a prefix are found
+ * best-first without visiting branches that cannot beat what has already been found.
+ * <p>
+ * Not thread-safe; SuggestionIndex guards it with a read/write lock.
+ */
+class SuggestionTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Object> BEST_FIRST = Comparator.<Object>comparingLong(SuggestionTrie::weightOf).reversed()
+            .thenComparing(item -> item instanceof Entry entry ? entry.text : "\uffff");
+
+    private final Node root = new Node(new char[0]);
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        while (true) {
+            path.add(node);
+            if (i == key.length()) {
+                node.entries = Arrays.copyOf(node.entries, node.entries.length + 1);
+                node.entries[node.entries.length - 1] = entry;
+                break;
+            }
+
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i).toCharArray());
+                leaf.entries = new Entry[] { entry };
+                node.children = insertAt(node.children, -index - 1, leaf);
+                path.add(leaf);
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length) {
+                // Split the edge: the shared run becomes a new node above the old child
+                Node middle = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                middle.children = new Node[] { child };
+                middle.maxWeight = child.maxWeight;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+
+        for (Node onPath : path) {
+            onPath.maxWeight = Math.max(onPath.maxWeight, entry.weight);
+        }
+        size++;
+    }
+
+    boolean remove(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        path.add(node);
+        while (i < key.length()) {
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (commonPrefix(child.label, key, i) < child.label.length) {
+                return false;
+            }
+            node = child;
+            i += child.label.length;
+            path.add(node);
+        }
+
+        int position = Arrays.asList(node.entries).indexOf(entry);
+        if (position < 0) {
+            return false;
+        }
+        Entry[] entries = new Entry[node.entries.length - 1];
+        System.arraycopy(node.entries, 0, entries, 0, position);
+        System.arraycopy(node.entries, position + 1, entries, position, entries.length - position);
+        node.entries = entries;
+        size--;
+
+        // Walk back up: drop empty nodes, re-collapse single-child chains, recompute subtree maxima
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            if (depth > 0) {
+                Node parent = path.get(depth - 1);
+                int index = childIndex(parent, current.label[0]);
+                if (current.entries.length == 0 && current.children.length == 0) {
+                    parent.children = removeAt(parent.children, index);
+                    continue;
+                }
+                if (current.entries.length == 0 && current.children.length == 1) {
+                    Node only = current.children[0];
+                    char[] label = Arrays.copyOf(current.label, current.label.length + only.label.length);
+                    System.arraycopy(only.label, 0, label, current.label.length, only.label.length);
+                    only.label = label;
+                    parent.children[index] = only;
+                    continue;
+                }
+            }
+            current.maxWeight = recomputeMax(current);
+        }
+        return true;
+    }
+
+    /**
+     * Up to {@code limit} entries whose key starts with {@code prefix}, heaviest first (ties by text).
+     */
+    List<Entry> top(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(i));
+            if (index < 0) {
+                return List.of();
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, i);
+            if (common < child.label.length && i + common < prefix.length()) {
+                return List.of();
+            }
+            node = child;
+            i += common;
+        }
+
+        List<Entry> result = new ArrayList<>(limit);
+        PriorityQueue<Object> frontier = new PriorityQueue<>(BEST_FIRST);
+        frontier.add(node);
+        while (!frontier.isEmpty() && result.size() < limit) {
+            Object next = frontier.poll();
+            if (next instanceof Entry entry) {
+                result.add(entry);
+            } else {
+                Node expanded = (Node) next;
+                frontier.addAll(Arrays.asList(expanded.entries));
+                frontier.addAll(Arrays.asList(expanded.children));
+            }
+        }
+        return result;
+    }
+
+    private static long weightOf(Object item) {
+        return item instanceof Entry entry ? entry.weight : ((Node) item).maxWeight;
+    }
+
+    private static long recomputeMax(Node node) {
+        long max = Long.MIN_VALUE;
+        for (Entry entry : node.entries) {
+            max = Math.max(max, entry.weight);
+        }
+        for (Node child : node.children) {
+            max = Math.max(max, child.maxWeight);
+        }
+        return max;
+    }
+
+    // Children are sorted by the first char of their label; returns -(insertion point) - 1 when absent
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midFirst = node.children[mid].label[0];
+            if (midFirst < first) {
+                low = mid + 1;
+            } else if (midFirst > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int max = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Node[] insertAt(Node[] nodes, int index, Node node) {
+        Node[] result = new Node[nodes.length + 1];
+        System.arraycopy(nodes, 0, result, 0, index);
+        result[index] = node;
+        System.arraycopy(nodes, index, result, index + 1, nodes.length - index);
+        return result;
+    }
+
+    private static Node[] removeAt(Node[] nodes, int index) {
+        if (nodes.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] result = new Node[nodes.length - 1];
+        System.arraycopy(nodes, 0, result, 0, index);
+        System.arraycopy(nodes, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] entries = NO_ENTRIES;
+        private long maxWeight = Long.MIN_VALUE;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * One completion. Immutable: a weight change is a remove and an insert.
+     */
+    static final class Entry {
+        final String type;
+        final long id;
+        final String text;
+        final String slug;
+        final long weight;
+
+        Entry(String type, long id, String text, String slug, long weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.slug = slug;
+            this.weight = weight;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.welog.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.example.welog.service.impl.UserDetailsImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.welog.utils.CursorUtils;
+import com.example.welog.utils.ResourceVersion;
 import com.example.welog.utils.ResponseDtoMapper;
 import com.example.welog.dto.CommentCreateDto;
 import com.example.welog.dto.CommentPatchDto;
 import com.example.welog.dto.CommentResponseDto;
+import com.example.welog.dto.CommentThreadDto;
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.event.CommentChangedEvent;
 import com.example.welog.exception.ResourceNotFoundException;
 import com.example.welog.model.Comment;
 import com.example.welog.model.Post;
@@ -22,16 +32,22 @@ import com.example.welog.repository.UserRepository;
 
 @Service
 public class CommentService {
+    // Replies can nest this deep; the threaded listing is bounded by the same depth
+    static final int MAX_COMMENT_LEVEL = 3;
+    static final int MAX_REPLY_PREVIEW = 10;
+
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserRepository userRepository,  AuthService authService) {
+    public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserRepository userRepository,  AuthService authService, ApplicationEventPublisher eventPublisher) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.authService = authService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<CommentResponseDto> getAllComments() {
@@ -48,6 +64,90 @@ public class CommentService {
                 .collect(Collectors.toList());
     }
 
+    // Root comments with their replies nested, from one query however many comments the post has
+    public List<CommentResponseDto> getCommentThreadsByPostId(Long postId) {
+        return ResponseDtoMapper.mapToCommentThreads(commentRepository.findThreadByPostId(postId), MAX_COMMENT_LEVEL);
+    }
+
+    // Conditional GET of the listings below: covers every comment of the post and its author
+    public ResourceVersion getCommentsVersion(Long postId) {
+        CommentRepository.CommentsVersion version = commentRepository.findVersionByPostId(postId);
+        return ResourceVersion.of(postId, version.getCommentCount(), version.getUpdatedAt(), version.getUsersUpdatedAt());
+    }
+
+    public CursorPageDto<CommentResponseDto> scrollCommentsByPostId(Long postId, String cursor, int size) {
+        int pageSize = CursorUtils.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findKeysetFirstPageByPostId(postId, limit);
+        } else {
+            CursorUtils.KeysetCursor keyset = CursorUtils.decodeKeyset(cursor);
+            comments = commentRepository.findKeysetPageByPostIdAfter(postId, keyset.getCreatedAt(), keyset.getId(), limit);
+        }
+
+        return CursorUtils.toPage(comments, pageSize, comment -> CursorUtils.encodeKeyset(comment.getCreatedAt(), comment.getId()), ResponseDtoMapper::mapToCommentResponseDto);
+    }
+
+    // Root comments of a post, a page at a time, each with its first replies inlined
+    public CursorPageDto<CommentThreadDto> scrollCommentThreadsByPostId(Long postId, String cursor, int size, int replies) {
+        int pageSize = CursorUtils.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findRootKeysetFirstPageByPostId(postId, limit);
+        } else {
+            CursorUtils.KeysetCursor keyset = CursorUtils.decodeKeyset(cursor);
+            comments = commentRepository.findRootKeysetPageByPostIdAfter(postId, keyset.getCreatedAt(), keyset.getId(), limit);
+        }
+
+        return toThreadPage(comments, pageSize, replies);
+    }
+
+    // Direct replies of one comment, a page at a time, each with its own first replies inlined
+    public CursorPageDto<CommentThreadDto> scrollRepliesByCommentId(Long id, String cursor, int size, int replies) {
+        if (!commentRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Comment not found with id: " + id);
+        }
+
+        int pageSize = CursorUtils.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findReplyKeysetFirstPageByParentId(id, limit);
+        } else {
+            CursorUtils.KeysetCursor keyset = CursorUtils.decodeKeyset(cursor);
+            comments = commentRepository.findReplyKeysetPageByParentIdAfter(id, keyset.getCreatedAt(), keyset.getId(), limit);
+        }
+
+        return toThreadPage(comments, pageSize, replies);
+    }
+
+    // The reply previews of the whole page come from two statements: ids of the first replies per parent, then the replies
+    private CursorPageDto<CommentThreadDto> toThreadPage(List<Comment> comments, int pageSize, int replies) {
+        int previewSize = Math.max(1, Math.min(replies, MAX_REPLY_PREVIEW));
+        List<Long> parentIds = comments.stream()
+                .limit(pageSize)
+                .filter(comment -> comment.getLevel() < MAX_COMMENT_LEVEL)
+                .map(Comment::getId)
+                .toList();
+
+        Map<Long, List<Comment>> previews = new HashMap<>();
+        if (!parentIds.isEmpty()) {
+            List<Long> replyIds = commentRepository.findFirstReplyIdsByParentIdIn(parentIds, previewSize + 1);
+            if (!replyIds.isEmpty()) {
+                commentRepository.findByIdInOrderByCreatedAt(replyIds)
+                        .forEach(reply -> previews.computeIfAbsent(reply.getParent().getId(), parentId -> new ArrayList<>()).add(reply));
+            }
+        }
+
+        return CursorUtils.toPage(comments, pageSize, comment -> CursorUtils.encodeKeyset(comment.getCreatedAt(), comment.getId()),
+                comment -> ResponseDtoMapper.mapToCommentThreadDto(comment, previews.getOrDefault(comment.getId(), List.of()), previewSize));
+    }
+
     public List<CommentResponseDto> getRootCommentsByPostId(Long postId) {
         return commentRepository.findRootCommentsByPostId(postId).stream()
                 .map(ResponseDtoMapper::mapToCommentResponseDto)
@@ -79,7 +179,7 @@ public class CommentService {
             parent = commentRepository.findById(commentCreateDto.getParentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Parent comment not found with id: " + commentCreateDto.getParentId()));
 
-            if (parent.getLevel() >= 3) {
+            if (parent.getLevel() >= MAX_COMMENT_LEVEL) {
                 throw new RuntimeException("Maximum reply depth reached");
             }
 
@@ -87,8 +187,10 @@ public class CommentService {
         }
 
         Comment comment = new Comment(commentCreateDto.getContent(), post, user, parent, level);
+        Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentChangedEvent(post.getId(), savedComment.getId(), CommentChangedEvent.Type.CREATED));
 
-        return ResponseDtoMapper.mapToCommentResponseDto(commentRepository.save(comment));
+        return ResponseDtoMapper.mapToCommentResponseDto(savedComment);
     }
 
     public CommentResponseDto updateComment(Long id, CommentPatchDto commentPatchDto) {
@@ -99,6 +201,9 @@ public class CommentService {
 //            throw new ResourceNotFoundException("Comment not found with id: " + id);
 //        }
 
+        // Both the old and the new post are affected when a comment is moved
+        Long previousPostId = comment.getPost().getId();
+
         if (commentPatchDto.getContent() != null) {
             comment.setContent(commentPatchDto.getContent());
         }
@@ -115,7 +220,13 @@ public class CommentService {
             comment.setUser(user);
         }
 
-        return ResponseDtoMapper.mapToCommentResponseDto(commentRepository.save(comment));
+        Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentChangedEvent(savedComment.getPost().getId(), id, CommentChangedEvent.Type.UPDATED));
+        if (!previousPostId.equals(savedComment.getPost().getId())) {
+            eventPublisher.publishEvent(new CommentChangedEvent(previousPostId, id, CommentChangedEvent.Type.DELETED, savedComment.getCreatedAt()));
+        }
+
+        return ResponseDtoMapper.mapToCommentResponseDto(savedComment);
     }
 
     public void deleteComment(Long id) {
@@ -127,6 +238,7 @@ public class CommentService {
 //        }
 
         commentRepository.softDelete(id);
+        eventPublisher.publishEvent(new CommentChangedEvent(comment.getPost().getId(), id, CommentChangedEvent.Type.DELETED, comment.getCreatedAt()));
     }
     
 }
@@ -1,12 +1,15 @@
 package com.example.welog.service;
 
 import com.example.welog.dto.ScrapedPostDto;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostTagsChangedEvent;
 import com.example.welog.model.*;
 import com.example.welog.repository.*;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +33,7 @@ public class DataImportService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Import scraped posts from JSON file
@@ -84,7 +88,7 @@ public class DataImportService {
     private void importSinglePost(ScrapedPostDto scrapedPost, ImportResult result) {
         // Skip if post already exists (by slug or external post_id)
         String cleanSlug = generateCleanSlug(scrapedPost.getTitle());
-        if (postRepository.findBySlug(cleanSlug).isPresent()) {
+        if (postRepository.existsBySlugIncludingDeleted(cleanSlug)) {
             log.debug("Post already exists, skipping: {}", scrapedPost.getTitle());
             result.incrementSkipped();
             return;
@@ -111,7 +115,13 @@ public class DataImportService {
         }
         
         // Save post
-        postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        if (!savedPost.getTags().isEmpty()) {
+            List<Long> tagIds = savedPost.getTags().stream().map(Tag::getId).toList();
+            tagRepository.adjustPostCounts(tagIds, 1);
+            eventPublisher.publishEvent(new PostTagsChangedEvent(savedPost.getId(), tagIds, List.of()));
+        }
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.CREATED));
         result.incrementSuccess();
         
         log.debug("Imported post: {}", scrapedPost.getTitle());
@@ -182,10 +192,10 @@ public class DataImportService {
                 .replaceAll("\\s+", "-")
                 .trim();
                 
-        // Ensure uniqueness by appending timestamp if needed
+        // Ensure uniqueness by appending a counter if needed; soft-deleted posts keep their slug reserved
         String uniqueSlug = baseSlug;
         int counter = 1;
-        while (postRepository.findBySlug(uniqueSlug).isPresent()) {
+        while (postRepository.existsBySlugIncludingDeleted(uniqueSlug)) {
             uniqueSlug = baseSlug + "-" + counter++;
         }
         
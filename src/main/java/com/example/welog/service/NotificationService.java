@@ -1,41 +1,107 @@
 package com.example.welog.service;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.example.welog.dto.NotificationResponseDto;
-import com.example.welog.model.Notification;
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.NotificationViewDto;
+import com.example.welog.dto.UnreadCountDto;
+import com.example.welog.exception.ResourceNotFoundException;
+import com.example.welog.notification.NotificationPartitionMaintainer;
+import com.example.welog.notification.NotificationStreamHub;
+import com.example.welog.notification.NotificationViewAssembler;
 import com.example.welog.repository.NotificationRepository;
-import com.example.welog.utils.ResponseDtoMapper;
+import com.example.welog.repository.UserRepository;
+import com.example.welog.utils.CursorUtils;
 
 @Service
 public class NotificationService {
     private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationStreamHub notificationStreamHub;
+    private final NotificationViewAssembler notificationViewAssembler;
+    private final AuthService authService;
+    // Notifications are kept this many months; inbox queries never reach older (monthly) partitions
+    private final int retentionMonths;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository, NotificationStreamHub notificationStreamHub, NotificationViewAssembler notificationViewAssembler, AuthService authService,
+                               @Value("${app.notifications.retention-months:6}") int retentionMonths) {
         this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.notificationViewAssembler = notificationViewAssembler;
+        this.notificationStreamHub = notificationStreamHub;
+        this.authService = authService;
+        this.retentionMonths = retentionMonths;
     }
 
-    public List<NotificationResponseDto> getNotificationsForUser(Long userId) {
-        List<Notification> notifications = notificationRepository.findByRecipientId(userId);
-        return notifications.stream()
-                .map(ResponseDtoMapper::mapToNotificationResponseDto)
-                .toList();
+    public SseEmitter streamNotifications(Long lastEventId) {
+        return notificationStreamHub.subscribe(authService.getCurrentUser().getId(), lastEventId);
     }
 
-    public void markAllNotificationsAsRead(Long userId) {
-        List<Notification> notifications = notificationRepository.findByRecipientId(userId);
-        for (Notification notification : notifications) {
-            notification.setRead(true);
+    public List<NotificationViewDto> getNotificationsForUser(Long userId) {
+        return notificationViewAssembler.withLatestActors(notificationRepository.findViewsByRecipientId(userId, since()));
+    }
+
+    public CursorPageDto<NotificationViewDto> scrollNotificationsForUser(Long userId, String cursor, int size) {
+        int pageSize = CursorUtils.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<NotificationViewDto> views;
+        if (cursor == null || cursor.isBlank()) {
+            views = notificationRepository.findViewsFirstPageByRecipientId(userId, since(), limit);
+        } else {
+            CursorUtils.KeysetCursor keyset = CursorUtils.decodeKeyset(cursor);
+            views = notificationRepository.findViewsPageByRecipientIdAfter(userId, since(), keyset.getCreatedAt(), keyset.getId(), limit);
         }
-        notificationRepository.saveAll(notifications);
+
+        CursorPageDto<NotificationViewDto> page = CursorUtils.toPage(views, pageSize, view -> CursorUtils.encodeKeyset(view.getCreatedAt(), view.getId()), view -> view);
+        notificationViewAssembler.withLatestActors(page.getItems());
+        return page;
+    }
+
+    // Only ever the current user's: the count alone says how active someone's account is
+    public UnreadCountDto getUnreadCount() {
+        Long userId = authService.getCurrentUser().getId();
+        int unreadCount = userRepository.findUnreadNotificationCountById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        return new UnreadCountDto(unreadCount);
+    }
+
+    @Transactional
+    public void markAllNotificationsAsRead(Long userId) {
+        markedRead(userId, notificationRepository.markAllReadByRecipientId(userId));
     }
 
+    @Transactional
     public void markNotificationAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        Long recipientId = notificationRepository.findRecipientIdById(notificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + notificationId));
+        markedRead(recipientId, notificationRepository.markReadByRecipientIdAndIdIn(recipientId, List.of(notificationId)));
+    }
+
+    // Ids that are not the current user's, or already read, are skipped
+    @Transactional
+    public void markNotificationsAsRead(List<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return;
+        }
+        Long userId = authService.getCurrentUser().getId();
+        markedRead(userId, notificationRepository.markReadByRecipientIdAndIdIn(userId, notificationIds));
+    }
+
+    private OffsetDateTime since() {
+        return NotificationPartitionMaintainer.inboxHorizon(retentionMonths);
+    }
+
+    private void markedRead(Long userId, int count) {
+        if (count > 0) {
+            userRepository.decrementUnreadNotificationCount(userId, count);
+        }
     }
 }
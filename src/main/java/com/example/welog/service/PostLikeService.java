@@ -1,22 +1,28 @@
 package com.example.welog.service;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import com.example.welog.dto.UserResponseDto;
-import com.example.welog.model.Notification;
-import com.example.welog.model.Post;
-import com.example.welog.model.PostLike;
-import com.example.welog.model.PostLikeId;
-import com.example.welog.model.User;
-import com.example.welog.repository.NotificationRepository;
+import com.example.welog.cache.PostLikeCounter;
+import com.example.welog.cache.UserLikeBitmaps;
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.LikeStatusDto;
+import com.example.welog.dto.LikersPageDto;
+import com.example.welog.dto.PostLikeStateDto;
+import com.example.welog.dto.UserSummaryDto;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.exception.ResourceNotFoundException;
+import com.example.welog.repository.NotificationOutboxRepository;
 import com.example.welog.repository.PostLikeRepository;
 import com.example.welog.repository.PostRepository;
 import com.example.welog.repository.UserRepository;
-import com.example.welog.utils.ResponseDtoMapper;
+import com.example.welog.utils.CursorUtils;
 
 import jakarta.transaction.Transactional;
 
@@ -26,79 +32,94 @@ public class PostLikeService {
     private final PostLikeRepository postLikeRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final AuthService authService;
+    private final UserLikeBitmaps userLikeBitmaps;
+    private final PostLikeCounter postLikeCounter;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PostLikeService(PostLikeRepository postLikeRepository, PostRepository postRepository, UserRepository userRepository, NotificationRepository notificationRepository) {
+    public PostLikeService(PostLikeRepository postLikeRepository, PostRepository postRepository, UserRepository userRepository, NotificationOutboxRepository notificationOutboxRepository, AuthService authService, UserLikeBitmaps userLikeBitmaps, PostLikeCounter postLikeCounter, ApplicationEventPublisher eventPublisher) {
         this.postLikeRepository = postLikeRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
-        this.notificationRepository = notificationRepository;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.authService = authService;
+        this.userLikeBitmaps = userLikeBitmaps;
+        this.postLikeCounter = postLikeCounter;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Likes the post once: repeating the call (or racing it from another request) is a no-op that reports
+     * {@code changed = false}. The notification and PostLikeChangedEvent only follow a real change.
+     * The notification itself is only queued here (one outbox row in this transaction) and created by
+     * NotificationOutboxDispatcher after commit.
+     */
     @Transactional
-    public void likePost(Long userId, Long postId) {
-        
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        // check if already liked
-        boolean exists = postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId());
-        if (exists) throw new RuntimeException("Already liked");
-
-        PostLike like = new PostLike();
-        like.setUser(user);
-        like.setPost(post);
-        like.setId(new PostLikeId(user.getId(), post.getId()));
-        postLikeRepository.save(like);
-
-        // create notification
-        if (!post.getAuthor().getId().equals(userId)) { // don't notify self-like
-            Notification notification = new Notification();
-            notification.setRecipient(post.getAuthor());
-            notification.setSender(user);
-            notification.setPost(post);
-            notification.setType("LIKE");
-            notification.setMessage(user.getName() + " liked your post: " + post.getTitle());
-            notificationRepository.save(notification);
+    public PostLikeStateDto likePost(Long userId, Long postId) {
+        if (postLikeRepository.reviveIfDeleted(userId, postId) + postLikeRepository.insertIfAbsent(userId, postId) == 0) {
+            requireUserAndPost(userId, postId);
+            return new PostLikeStateDto(postId, true, false);
         }
+        eventPublisher.publishEvent(new PostLikeChangedEvent(userId, postId, PostLikeChangedEvent.Type.LIKED));
+
+        notificationOutboxRepository.enqueueLike(userId, postId);
+        return new PostLikeStateDto(postId, true, true);
     }
 
     @Transactional
-    public void unlikePost(Long userId, Long postId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        PostLikeId likeId = new PostLikeId(user.getId(), post.getId());
-        PostLike like = postLikeRepository.findById(likeId)
-            .orElseThrow(() -> new RuntimeException("Like not found"));
+    public PostLikeStateDto unlikePost(Long userId, Long postId) {
+        // Read first: trending takes back what the like contributed when it was made
+        OffsetDateTime likedAt = postLikeRepository.findCreatedAt(userId, postId).orElse(null);
+        if (postLikeRepository.deleteIfPresent(userId, postId) == 0) {
+            requireUserAndPost(userId, postId);
+            return new PostLikeStateDto(postId, false, false);
+        }
+        eventPublisher.publishEvent(new PostLikeChangedEvent(userId, postId, PostLikeChangedEvent.Type.UNLIKED, likedAt));
+        return new PostLikeStateDto(postId, false, true);
+    }
 
-        postLikeRepository.delete(like);
+    /**
+     * Which of the given posts the current user has liked; answered from memory (UserLikeBitmaps).
+     */
+    public LikeStatusDto getLikeStatus(List<Long> postIds) {
+        Long userId = authService.getCurrentUser().getId();
+        return new LikeStatusDto(userLikeBitmaps.likedAmong(userId, postIds));
+    }
 
-        // Optionally, delete the notification related to this like
-        // List<Notification> notifications = notificationRepository.findByRecipientId(post.getAuthor().getId());
-        // for (Notification notification : notifications) {
-        //     if (notification.getSender().getId().equals(userId) &&
-        //         notification.getPost() != null &&
-        //         notification.getPost().getId().equals(postId) &&
-        //         "LIKE".equals(notification.getType())) {
-        //         notificationRepository.delete(notification);
-        //         break; // assuming only one such notification exists
-        //     }
-        // }
+    // Only on the no-op path: tells "nothing to do" apart from "no such user/post"
+    private void requireUserAndPost(Long userId, Long postId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found with id: " + postId);
+        }
     }
 
-    public List<UserResponseDto> getLikes(Long postId) {
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new RuntimeException("Post not found"));
+    /**
+     * A page of the post's likers, newest first. The total comes from posts.like_count plus the
+     * not yet flushed likes, never from counting posts_likes.
+     */
+    public LikersPageDto getLikers(Long postId, String cursor, int size) {
+        long storedCount = postRepository.findLikeCountById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
+        int pageSize = CursorUtils.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PostLikeRepository.LikerRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postLikeRepository.findLikersFirstPage(postId, limit);
+        } else {
+            CursorUtils.KeysetCursor keyset = CursorUtils.decodeKeyset(cursor);
+            rows = postLikeRepository.findLikersPageAfter(postId, keyset.getCreatedAt(), keyset.getId(), limit);
+        }
 
-        return postLikeRepository.findByPostId(post.getId()).stream()
-            .map(PostLike::getUser)
-            .map(ResponseDtoMapper::mapToUserResponseDto)
-            .toList();
+        CursorPageDto<UserSummaryDto> page = CursorUtils.toPage(rows, pageSize,
+                row -> CursorUtils.encodeKeyset(row.getLikedAt(), row.getUserId()),
+                row -> new UserSummaryDto(row.getUserId(), row.getName(), row.getPhoto()));
+        long totalCount = Math.max(0, storedCount + postLikeCounter.pending(postId));
+        return new LikersPageDto(page.getItems(), page.getNextCursor(), totalCount);
     }
 
 }
@@ -0,0 +1,113 @@
+package com.example.welog.service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.PostResponseDto;
+import com.example.welog.dto.PostSearchHitDto;
+import com.example.welog.exception.BadRequestException;
+import com.example.welog.exception.ResourceNotFoundException;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.search.PostSearchIndex;
+import com.example.welog.utils.CursorUtils;
+import com.example.welog.utils.ResponseDtoMapper;
+
+/**
+ * Ranked search over title, excerpt and content.
+ * On PostgreSQL with the V8 migration applied this is a GIN-indexed tsvector match ordered by ts_rank;
+ * anywhere else (H2 in tests, a database without the migration) it falls back to a substring match.
+ * {@link #searchIndex} answers from the in-process BM25 index instead and never touches the database.
+ */
+@Service
+public class PostSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchService.class);
+
+    public enum Mode { TITLE, FULLTEXT }
+
+    private final PostRepository postRepository;
+    private final DataSource dataSource;
+    private final PostSearchIndex postSearchIndex;
+    private volatile Boolean fullTextAvailable;
+
+    public PostSearchService(PostRepository postRepository, DataSource dataSource, PostSearchIndex postSearchIndex) {
+        this.postRepository = postRepository;
+        this.dataSource = dataSource;
+        this.postSearchIndex = postSearchIndex;
+    }
+
+    public static Mode parseMode(String mode) {
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown search mode: " + mode);
+        }
+    }
+
+    public Page<PostResponseDto> searchFullText(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+
+        // Rank order is fixed by the query; a client-supplied sort would defeat it
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return (isFullTextAvailable() ? postRepository.searchFullText(query, page) : postRepository.searchSubstring(query, page))
+                .map(ResponseDtoMapper::mapToPostResponseDto);
+    }
+
+    // Ranked hits only; a page is resumed with the (score, id) of its last hit rather than an offset
+    public CursorPageDto<PostSearchHitDto> searchIndex(String query, String searchAfter, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if (!postSearchIndex.isEnabled()) {
+            throw new ResourceNotFoundException("Search index is disabled");
+        }
+
+        int pageSize = CursorUtils.clampPageSize(size);
+        CursorUtils.ScoreCursor after = searchAfter == null ? null : CursorUtils.decodeScore(searchAfter);
+        List<PostSearchHitDto> hits = postSearchIndex.search(query, pageSize + 1, after);
+        return CursorUtils.toPage(hits, pageSize, hit -> CursorUtils.encodeScore(hit.getScore(), hit.getId()), hit -> hit);
+    }
+
+    boolean isFullTextAvailable() {
+        if (fullTextAvailable == null) {
+            Boolean detected = detectFullText();
+            if (detected == null) {
+                // Undecided: fall back for this request and inspect again on the next one
+                return false;
+            }
+            fullTextAvailable = detected;
+            logger.info("Post search uses {}", fullTextAvailable ? "PostgreSQL full-text (posts.search_vector)" : "substring fallback");
+        }
+        return fullTextAvailable;
+    }
+
+    // null when the database could not be inspected (e.g. no connection yet), which says nothing about its schema
+    private Boolean detectFullText() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            if (!"PostgreSQL".equalsIgnoreCase(metaData.getDatabaseProductName())) {
+                return false;
+            }
+            try (ResultSet columns = metaData.getColumns(null, null, "posts", "search_vector")) {
+                return columns.next();
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not inspect database for full-text support: {}", e.getMessage());
+            return null;
+        }
+    }
+}
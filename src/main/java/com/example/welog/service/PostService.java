@@ -6,6 +6,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.example.welog.service.impl.UserDetailsImpl;
 import jakarta.transaction.Transactional;
@@ -13,6 +17,8 @@ import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,14 +31,26 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.welog.cache.PostDetailCache;
+import com.example.welog.cache.PostLikeCounter;
+import com.example.welog.cache.PostSlugIndex;
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.PostCardDto;
 import com.example.welog.dto.PostCreateDto;
 import com.example.welog.dto.PostPatchDto;
 import com.example.welog.dto.PostResponseDto;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostTagsChangedEvent;
 import com.example.welog.exception.ResourceNotFoundException;
 import com.example.welog.model.Post;
+import com.example.welog.model.Tag;
 import com.example.welog.model.User;
 import com.example.welog.repository.PostRepository;
+import com.example.welog.repository.TagRepository;
 import com.example.welog.repository.UserRepository;
+import com.example.welog.trending.TrendingEngine;
+import com.example.welog.utils.CursorUtils;
+import com.example.welog.utils.ResourceVersion;
 import com.example.welog.utils.ResponseDtoMapper;
 
 @Service
@@ -40,17 +58,29 @@ public class PostService {
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final TagRepository tagRepository;
     private final AuthService authService;
     private final SupabaseStorageService supabaseStorageService;
+    private final PostDetailCache postDetailCache;
+    private final PostSlugIndex postSlugIndex;
+    private final TrendingEngine trendingEngine;
+    private final PostLikeCounter postLikeCounter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.upload.dir:uploads/img}")
     private String uploadDir;
 
-    public PostService(PostRepository postRepository, UserRepository userRepository, AuthService authService, SupabaseStorageService supabaseStorageService) {
+    public PostService(PostRepository postRepository, UserRepository userRepository, TagRepository tagRepository, AuthService authService, SupabaseStorageService supabaseStorageService, PostDetailCache postDetailCache, PostSlugIndex postSlugIndex, TrendingEngine trendingEngine, PostLikeCounter postLikeCounter, ApplicationEventPublisher eventPublisher) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
+        this.tagRepository = tagRepository;
         this.authService = authService;
         this.supabaseStorageService = supabaseStorageService;
+        this.postDetailCache = postDetailCache;
+        this.postSlugIndex = postSlugIndex;
+        this.trendingEngine = trendingEngine;
+        this.postLikeCounter = postLikeCounter;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<PostResponseDto> getAllPosts(Pageable pageable) {
@@ -63,44 +93,104 @@ public class PostService {
                 .toList();
     }
 
-    @Transactional
-    public PostResponseDto getPost(Long id) {
-        if (!postRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Post not found with id: " + id);
+    // Keyset alternative to getAllPosts: no COUNT(*) and constant cost regardless of depth
+    public CursorPageDto<PostResponseDto> scrollPosts(String cursor, int size) {
+        int pageSize = CursorUtils.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Post> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findKeysetFirstPage(limit);
+        } else {
+            CursorUtils.KeysetCursor keyset = CursorUtils.decodeKeyset(cursor);
+            posts = postRepository.findKeysetPageAfter(keyset.getCreatedAt(), keyset.getId(), limit);
         }
 
-        Post post = postRepository.findById(id).get();
-//        Post post = postRepository.findByIdWithTagsAndComments(id).get();
+        return CursorUtils.toPage(posts, pageSize, post -> CursorUtils.encodeKeyset(post.getCreatedAt(), post.getId()), ResponseDtoMapper::mapToPostResponseDto);
+    }
 
-//        if (post.getDeletedAt() != null) {
-//            throw new ResourceNotFoundException("Post not found with id: " + id);
-//        }
+    public List<PostCardDto> getPostFeed(Pageable pageable) {
+        List<PostCardDto> cards = postRepository.findPostCards(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSortOr(Sort.by(Sort.Direction.DESC, "createdAt", "id"))));
+
+        attachTagNames(cards);
+        return cards;
+    }
 
-        /*
-        logger.debug("========= PostService =========");
+    // Ranking comes from memory; the database only fills in the cards of the posts already chosen
+    public List<PostCardDto> getTrendingPosts(int limit) {
+        List<Long> ids = trendingEngine.topPostIds(CursorUtils.clampPageSize(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
-        logger.debug("Post loaded: " + post.getId());
-        logger.debug("Tags collection class: " + post.getTags().getClass().getName());
-        logger.debug("Comments collection class: " + post.getComments().getClass().getName());
+        Map<Long, PostCardDto> cardsById = postRepository.findPostCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostCardDto::getId, card -> card));
+        List<PostCardDto> cards = ids.stream().map(cardsById::get).filter(Objects::nonNull).toList();
+        attachTagNames(cards);
+        return cards;
+    }
 
-        try {
-            Hibernate.initialize(post.getTags());
-            logger.debug("Tags initialized successfully");
-        } catch (Exception e) {
-            logger.debug("Error initializing tags: " + e.getMessage());
-            e.printStackTrace();
+    public CursorPageDto<PostCardDto> scrollPostsByTag(String tagName, String cursor, int size) {
+        Tag tag = tagRepository.findByName(tagName)
+                .orElseThrow(() -> new ResourceNotFoundException("Tag not found with name: " + tagName));
+        int pageSize = CursorUtils.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PostCardDto> cards;
+        if (cursor == null || cursor.isBlank()) {
+            cards = postRepository.findCardsByTagFirstPage(tag.getId(), limit);
+        } else {
+            CursorUtils.KeysetCursor keyset = CursorUtils.decodeKeyset(cursor);
+            cards = postRepository.findCardsByTagPageAfter(tag.getId(), keyset.getCreatedAt(), keyset.getId(), limit);
         }
 
-        try {
-            Hibernate.initialize(post.getComments());
-            logger.debug("Comments initialized successfully");
-        } catch (Exception e) {
-            logger.debug("Error initializing comments: " + e.getMessage());
-            e.printStackTrace();
+        CursorPageDto<PostCardDto> page = CursorUtils.toPage(cards, pageSize, card -> CursorUtils.encodeKeyset(card.getCreatedAt(), card.getId()), card -> card);
+        attachTagNames(page.getItems());
+        return page;
+    }
+
+    // One extra query for the whole page instead of walking Post.tags per card
+    private void attachTagNames(List<PostCardDto> cards) {
+        if (cards.isEmpty()) {
+            return;
         }
-        */
 
-        return ResponseDtoMapper.mapToPostResponseDto(post);
+        Map<Long, List<String>> tagNamesByPostId = postRepository.findTagNamesByPostIdIn(cards.stream().map(PostCardDto::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(PostRepository.PostTagName::getPostId,
+                        Collectors.mapping(PostRepository.PostTagName::getName, Collectors.toList())));
+
+        cards.forEach(card -> card.setTags(tagNamesByPostId.getOrDefault(card.getId(), List.of())));
+    }
+
+    @Transactional
+    public PostResponseDto getPost(Long id) {
+        // Hot posts are served from PostDetailCache; a miss assembles the DTO once and caches it
+        return postDetailCache.get(id, this::loadPost);
+    }
+
+    // Conditional GET: answered from one probe row, empty if the post does not exist
+    public Optional<ResourceVersion> getPostVersion(Long id) {
+        return postRepository.findVersionById(id)
+                .map(version -> ResourceVersion.of(version.getUpdatedAt(), version.getAuthorUpdatedAt(), version.getTagCount(), version.getTagsUpdatedAt(),
+                        version.getCommentCount(), version.getCommentsCreatedAt(), version.getCommentsUpdatedAt(), version.getCommentersUpdatedAt(),
+                        version.getLikeCount() + postLikeCounter.pending(id)));
+    }
+
+    private PostResponseDto loadPost(Long id) {
+        Post post = postRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
+//        Post post = postRepository.findByIdWithTagsAndComments(id).get();
+
+        PostResponseDto dto = ResponseDtoMapper.mapToPostResponseDto(post);
+        // The column trails likes by up to one flush interval
+        dto.setLikeCount(post.getLikeCount() + postLikeCounter.pending(id));
+        return dto;
+    }
+
+    public Long getPostIdBySlug(String slug) {
+        return postSlugIndex.resolve(slug)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with slug: " + slug));
     }
 
     @Transactional
@@ -115,6 +205,7 @@ public class PostService {
                 postCreateDto.getCoverImage(),
                 author
         );
+        post.setSlug(uniqueSlug(post.getSlug()));
         
         // Set custom excerpt if provided
         if (postCreateDto.getExcerpt() != null && !postCreateDto.getExcerpt().trim().isEmpty()) {
@@ -122,9 +213,20 @@ public class PostService {
         }
 
         Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.CREATED));
+
         return ResponseDtoMapper.mapToPostResponseDto(savedPost);
     }
 
+    // Titles are not unique, slugs are: "my-post", "my-post-2", "my-post-3", ...
+    private String uniqueSlug(String slug) {
+        String candidate = slug;
+        for (int suffix = 2; postRepository.existsBySlugIncludingDeleted(candidate); suffix++) {
+            candidate = slug + "-" + suffix;
+        }
+        return candidate;
+    }
+
     public PostResponseDto updatePost(Long id, PostPatchDto postPatchDto) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
@@ -150,6 +252,8 @@ public class PostService {
         }
 
         Post updatedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(updatedPost.getId(), PostChangedEvent.Type.UPDATED));
+
         return ResponseDtoMapper.mapToPostResponseDto(updatedPost);
     }
 
@@ -181,8 +285,10 @@ public class PostService {
         }
 
         postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Type.UPDATED));
     }
 
+    @Transactional
     public void deletePost(Long id) {
         if (!postRepository.existsById(id)) {
             throw new ResourceNotFoundException("Post not found with id: " + id);
@@ -194,7 +300,14 @@ public class PostService {
 //            throw new ResourceNotFoundException("Post not found with id: " + id);
 //        }
 
+        // The post leaves every tag's count; its posts_tags rows stay so a restore could put it back
+        List<Long> tagIds = postRepository.findTagIdsByPostId(id);
         postRepository.softDelete(id);
+        if (!tagIds.isEmpty()) {
+            tagRepository.adjustPostCounts(tagIds, -1);
+            eventPublisher.publishEvent(new PostTagsChangedEvent(id, List.of(), tagIds));
+        }
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Type.DELETED));
     }
 
     public Page<PostResponseDto> searchPostsByTitle(String title, Pageable pageable) {
@@ -202,4 +315,13 @@ public class PostService {
 
         return page.map(ResponseDtoMapper::mapToPostResponseDto);
     }
+
+    public CursorPageDto<PostResponseDto> scrollPostsByTitle(String title, String cursor, int size) {
+        int pageSize = CursorUtils.clampPageSize(size);
+        Long afterId = cursor == null || cursor.isBlank() ? 0L : CursorUtils.decodeId(cursor);
+
+        List<Post> posts = postRepository.findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(title, afterId, Limit.of(pageSize + 1));
+
+        return CursorUtils.toPage(posts, pageSize, post -> CursorUtils.encodeId(post.getId()), ResponseDtoMapper::mapToPostResponseDto);
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.welog.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.example.welog.cache.TagPopularityIndex;
+import com.example.welog.dto.TagCountDto;
+import com.example.welog.utils.CursorUtils;
+
+@Service
+public class TagService {
+    private final TagPopularityIndex tagPopularityIndex;
+
+    public TagService(TagPopularityIndex tagPopularityIndex) {
+        this.tagPopularityIndex = tagPopularityIndex;
+    }
+
+    public List<TagCountDto> getPopularTags(int limit) {
+        return tagPopularityIndex.top(CursorUtils.clampPageSize(limit));
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.welog.service;
 
+import com.example.welog.dto.CursorPageDto;
 import com.example.welog.dto.UserCreateDto;
 import com.example.welog.dto.UserPatchDto;
 import com.example.welog.dto.UserResponseDto;
+import com.example.welog.event.UserProfileChangedEvent;
 import com.example.welog.exception.ResourceNotFoundException;
 import com.example.welog.model.User;
+import com.example.welog.repository.PostRepository;
 import com.example.welog.repository.UserRepository;
 import com.example.welog.service.impl.UserDetailsImpl;
+import com.example.welog.utils.CursorUtils;
+import com.example.welog.utils.ResourceVersion;
 import com.example.welog.utils.ResponseDtoMapper;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +32,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class UserService {
@@ -33,14 +41,19 @@ public class UserService {
     private final UserRepository userRepository;
     private final AuthService authService;
     private final SupabaseStorageService supabaseStorageService;
+    private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.upload.dir:uploads/img}")
     private String uploadDir;
 
-    public UserService(UserRepository userRepository, AuthService authService, SupabaseStorageService supabaseStorageService) {
+    public UserService(UserRepository userRepository, AuthService authService, SupabaseStorageService supabaseStorageService,
+                       PostRepository postRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.authService = authService;
         this.supabaseStorageService = supabaseStorageService;
+        this.postRepository = postRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<UserResponseDto> getAll(Pageable pageable) {
@@ -52,6 +65,20 @@ public class UserService {
                 .toList();
     }
 
+    public CursorPageDto<UserResponseDto> scroll(String cursor, int size) {
+        int pageSize = CursorUtils.clampPageSize(size);
+        Long afterId = cursor == null || cursor.isBlank() ? 0L : CursorUtils.decodeId(cursor);
+
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+
+        return CursorUtils.toPage(users, pageSize, user -> CursorUtils.encodeId(user.getId()), ResponseDtoMapper::mapToUserResponseDto);
+    }
+
+    public Optional<ResourceVersion> getVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .map(version -> ResourceVersion.of(version.getUpdatedAt(), version.getRoleCount()));
+    }
+
     public UserResponseDto get(Long id) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
@@ -98,7 +125,9 @@ public class UserService {
         if (userPatchDto.getEmail() != null) existingUser.setEmail(userPatchDto.getEmail());
         if (userPatchDto.getPhoto() != null) existingUser.setPhoto(userPatchDto.getPhoto());
 
-        return ResponseDtoMapper.mapToUserResponseDto(userRepository.save(existingUser));
+        User savedUser = userRepository.save(existingUser);
+        profileChanged(id);
+        return ResponseDtoMapper.mapToUserResponseDto(savedUser);
     }
 
     public void delete(Long id) {
@@ -113,6 +142,7 @@ public class UserService {
 //        }
 
         userRepository.softDelete(id);
+        profileChanged(id);
     }
 
     public UserResponseDto updateMe(MultipartFile photo, String name, String email) {
@@ -150,7 +180,14 @@ public class UserService {
             user.setEmail(email);
         }
 
-        return ResponseDtoMapper.mapToUserResponseDto(userRepository.save(user));
+        User savedUser = userRepository.save(user);
+        profileChanged(savedUser.getId());
+        return ResponseDtoMapper.mapToUserResponseDto(savedUser);
+    }
+
+    // Post details embed the author's and commenters' name and photo, and the caches cannot tell which ones
+    private void profileChanged(Long userId) {
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId, postRepository.findIdsShowingUser(userId)));
     }
 
     // For security
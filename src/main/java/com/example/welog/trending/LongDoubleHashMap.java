@@ -0,0 +1,139 @@
+package com.example.welog.trending;
+
+/**
+ * Open-addressing (linear probing) map from positive long keys to double values, with no boxing.
+ * Key 0 marks an empty slot, so it cannot be stored; post ids start at 1. There is no single-key
+ * removal: callers drop entries in bulk with {@link #retainAbove}, which rebuilds the table.
+ * Not thread-safe.
+ */
+class LongDoubleHashMap {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+    private int resizeAt;
+
+    LongDoubleHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    double get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    void put(long key, double value) {
+        int slot = find(key);
+        if (keys[slot] != key) {
+            insertAt(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    // Adds delta to the value (absent keys count as 0) and returns the new value
+    double addTo(long key, double delta) {
+        int slot = find(key);
+        if (keys[slot] != key) {
+            insertAt(slot, key, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    void scale(double factor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                values[i] *= factor;
+            }
+        }
+    }
+
+    // Drops every entry whose value is not above the threshold; the table shrinks to fit what is left
+    void retainAbove(double threshold) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        int kept = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldValues[i] > threshold) {
+                kept++;
+            }
+        }
+
+        allocate(tableSizeFor(kept));
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldValues[i] > threshold) {
+                insertAt(find(oldKeys[i]), oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    void forEach(Entry consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void insertAt(int slot, long key, double value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            long[] oldKeys = keys;
+            double[] oldValues = values;
+            allocate(keys.length * 2);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int target = find(oldKeys[i]);
+                    keys[target] = oldKeys[i];
+                    values[target] = oldValues[i];
+                    size++;
+                }
+            }
+        }
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(16, capacity);
+    }
+
+    // Sequential ids would otherwise fill runs of adjacent slots
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(long key, double value);
+    }
+}
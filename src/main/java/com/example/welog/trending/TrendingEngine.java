@@ -0,0 +1,349 @@
+package com.example.welog.trending;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.welog.event.CommentChangedEvent;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostLikeChangedEvent;
+
+/**
+ * Trending posts: engagement (likes, comments) with exponential time decay, kept entirely in memory.
+ * <p>
+ * Scores are stored forward-decayed: an event at time t adds {@code weight * 2^((t - epoch) / halfLife)}, so stored
+ * scores never need to be decayed to stay comparable, and the order only changes when an event arrives. That lets
+ * a top-K min-heap be maintained per event. Periodically (and before the growth factor gets large) everything is
+ * rescaled to a new epoch, which also drops posts whose score has decayed to nothing.
+ * <p>
+ * An unlike or a deleted comment takes back what the original event contributed, decayed from when it happened,
+ * not its weight today. A heap member whose score drops just moves within the heap: the heap holds {@code top-k}
+ * more entries than are served, an outsider that now beats it gets in with its next event, and the rescale on
+ * every snapshot rebuilds the heap from all scores.
+ * <p>
+ * The scores are snapshotted to {@code snapshot-file} so a restart resumes where it left off; a blank path
+ * keeps them in memory only.
+ */
+@Component
+public class TrendingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(TrendingEngine.class);
+
+    static final double LIKE_WEIGHT = 1;
+    static final double COMMENT_WEIGHT = 2;
+    // 2^64 is still far from overflowing a double
+    private static final int MAX_HALF_LIVES_BEFORE_RESCALE = 64;
+    // A post below this has effectively stopped trending
+    private static final double PRUNE_BELOW = 1e-3;
+    private static final int SNAPSHOT_MAGIC = 0x54524E44;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int HEAP_SLACK_FACTOR = 2;
+
+    private final double halfLifeMillis;
+    private final int topK;
+    private final Path snapshotFile;
+    private final LongSupplier clock;
+
+    private final LongDoubleHashMap scores = new LongDoubleHashMap(1024);
+    private long epochMillis;
+    // Min-heap of the best stored scores, HEAP_SLACK_FACTOR * K of them; K is small, so membership is a linear scan
+    private final long[] heapIds;
+    private final double[] heapScores;
+    private int heapSize;
+
+    @Autowired
+    public TrendingEngine(@Value("${app.trending.half-life:6h}") Duration halfLife,
+                          @Value("${app.trending.top-k:100}") int topK,
+                          @Value("${app.trending.snapshot-file:data/trending.snapshot}") String snapshotFile) {
+        this(halfLife, topK, snapshotFile, System::currentTimeMillis);
+    }
+
+    TrendingEngine(Duration halfLife, int topK, String snapshotFile, LongSupplier clock) {
+        this.halfLifeMillis = halfLife.toMillis();
+        this.topK = topK;
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.clock = clock;
+        this.heapIds = new long[topK * HEAP_SLACK_FACTOR];
+        this.heapScores = new double[topK * HEAP_SLACK_FACTOR];
+        this.epochMillis = clock.getAsLong();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.getType() == PostLikeChangedEvent.Type.LIKED) {
+            record(event.getPostId(), LIKE_WEIGHT);
+        } else {
+            takeBack(event.getPostId(), LIKE_WEIGHT, event.getLikedAt());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> record(event.getPostId(), COMMENT_WEIGHT);
+            case DELETED -> takeBack(event.getPostId(), COMMENT_WEIGHT, event.getCommentCreatedAt());
+            case UPDATED -> { }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            remove(event.getPostId());
+        }
+    }
+
+    /**
+     * Adds an engagement of the given weight at the current time.
+     */
+    public synchronized void record(long postId, double weight) {
+        long now = clock.getAsLong();
+        if (now - epochMillis > MAX_HALF_LIVES_BEFORE_RESCALE * halfLifeMillis) {
+            rescale(now);
+        }
+
+        offer(postId, scores.addTo(postId, weight * growth(now)), false);
+    }
+
+    /**
+     * Takes back an engagement of the given weight that happened at {@code occurredAt}: what it contributed then,
+     * decayed to now (scores never go below zero). Without the original time nothing is taken back.
+     */
+    public synchronized void takeBack(long postId, double weight, OffsetDateTime occurredAt) {
+        double stored = scores.get(postId);
+        if (occurredAt == null || stored <= 0) {
+            return;
+        }
+
+        stored = Math.max(0, stored - weight * growth(occurredAt.toInstant().toEpochMilli()));
+        scores.put(postId, stored);
+        offer(postId, stored, true);
+    }
+
+    public synchronized void remove(long postId) {
+        if (scores.get(postId) > 0) {
+            scores.put(postId, 0);
+            offer(postId, 0, true);
+        }
+    }
+
+    /**
+     * Ids of the hottest posts, best first.
+     */
+    public synchronized List<Long> topPostIds(int limit) {
+        Integer[] order = new Integer[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> heapScores[a] != heapScores[b]
+                ? Double.compare(heapScores[b], heapScores[a])
+                : Long.compare(heapIds[b], heapIds[a]));
+
+        // The slack beyond top-k is headroom, not part of the ranking
+        int served = Math.min(limit, topK);
+        List<Long> ids = new ArrayList<>(Math.min(served, heapSize));
+        for (int i = 0; i < heapSize && ids.size() < served; i++) {
+            if (heapScores[order[i]] > 0) {
+                ids.add(heapIds[order[i]]);
+            }
+        }
+        return ids;
+    }
+
+    // Current (decayed) score, for diagnostics and tests
+    public synchronized double score(long postId) {
+        return scores.get(postId) / growth(clock.getAsLong());
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a trending snapshot");
+            }
+            synchronized (this) {
+                epochMillis = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    scores.put(in.readLong(), in.readDouble());
+                }
+                rebuildHeap();
+            }
+            logger.info("Trending scores restored from {}: {} posts", snapshotFile, scores.size());
+        } catch (IOException e) {
+            logger.warn("Could not restore trending scores from {}, starting empty: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(initialDelayString = "${app.trending.snapshot-interval:1m}", fixedDelayString = "${app.trending.snapshot-interval:1m}")
+    public void snapshot() {
+        long epoch;
+        long[] ids;
+        double[] values;
+        synchronized (this) {
+            rescale(clock.getAsLong());
+            epoch = epochMillis;
+            ids = new long[scores.size()];
+            values = new double[scores.size()];
+            int[] next = new int[1];
+            scores.forEach((postId, score) -> {
+                ids[next[0]] = postId;
+                values[next[0]++] = score;
+            });
+        }
+        if (snapshotFile == null) {
+            return;
+        }
+
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            if (snapshotFile.getParent() != null) {
+                Files.createDirectories(snapshotFile.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(epoch);
+                out.writeInt(ids.length);
+                for (int i = 0; i < ids.length; i++) {
+                    out.writeLong(ids[i]);
+                    out.writeDouble(values[i]);
+                }
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Could not snapshot trending scores to {}", snapshotFile, e);
+        }
+    }
+
+    private double growth(long now) {
+        return Math.pow(2, (now - epochMillis) / halfLifeMillis);
+    }
+
+    // Caller holds the monitor. Moves the epoch to now, so stored scores equal current scores again
+    private void rescale(long now) {
+        scores.scale(1 / growth(now));
+        scores.retainAbove(PRUNE_BELOW);
+        epochMillis = now;
+        rebuildHeap();
+    }
+
+    // Caller holds the monitor
+    private void offer(long postId, double stored, boolean decreased) {
+        int position = -1;
+        for (int i = 0; i < heapSize; i++) {
+            if (heapIds[i] == postId) {
+                position = i;
+                break;
+            }
+        }
+
+        if (position >= 0) {
+            heapScores[position] = stored;
+            if (!decreased) {
+                siftDown(position);
+            } else if (stored <= 0) {
+                removeAt(position);
+            } else {
+                siftUp(position);
+            }
+        } else {
+            push(postId, stored);
+        }
+    }
+
+    // Caller holds the monitor and knows the post is not in the heap
+    private void push(long postId, double stored) {
+        if (stored <= 0) {
+            return;
+        }
+        if (heapSize < heapIds.length) {
+            heapIds[heapSize] = postId;
+            heapScores[heapSize] = stored;
+            siftUp(heapSize++);
+        } else if (heapIds.length > 0 && stored > heapScores[0]) {
+            heapIds[0] = postId;
+            heapScores[0] = stored;
+            siftDown(0);
+        }
+    }
+
+    private void removeAt(int position) {
+        heapSize--;
+        if (position < heapSize) {
+            heapIds[position] = heapIds[heapSize];
+            heapScores[position] = heapScores[heapSize];
+            siftDown(position);
+            siftUp(position);
+        }
+    }
+
+    private void rebuildHeap() {
+        heapSize = 0;
+        scores.forEach(this::push);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (heapScores[parent] <= heapScores[position]) {
+                return;
+            }
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heapSize && heapScores[left] < heapScores[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && heapScores[right] < heapScores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(smallest, position);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = heapIds[a];
+        heapIds[a] = heapIds[b];
+        heapIds[b] = id;
+        double score = heapScores[a];
+        heapScores[a] = heapScores[b];
+        heapScores[b] = score;
+    }
+}
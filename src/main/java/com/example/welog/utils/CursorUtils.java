@@ -0,0 +1,131 @@
+package com.example.welog.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.exception.BadRequestException;
+
+/**
+ * Encodes and decodes the opaque cursors used by the keyset-paginated endpoints.
+ * A cursor is the (created_at, id) of the last row of a page, just its id, or the (score, id) of the last search hit.
+ */
+public class CursorUtils {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorUtils() {
+    }
+
+    public static String encodeKeyset(OffsetDateTime createdAt, Long id) {
+        Instant instant = createdAt.toInstant();
+        return encode(instant.getEpochSecond() + "." + instant.getNano() + ":" + id);
+    }
+
+    public static KeysetCursor decodeKeyset(String cursor) {
+        String value = decode(cursor);
+        try {
+            int colon = value.indexOf(':');
+            int dot = value.indexOf('.');
+            if (colon < 0 || dot < 0 || dot > colon) {
+                throw new BadRequestException("Invalid cursor");
+            }
+
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(value.substring(0, dot)), Long.parseLong(value.substring(dot + 1, colon)));
+            return new KeysetCursor(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC), Long.parseLong(value.substring(colon + 1)));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    public static String encodeId(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    // Score cursors carry the exact float bits, so equal scores compare equal when the page is resumed
+    public static String encodeScore(float score, Long id) {
+        return encode(Integer.toHexString(Float.floatToIntBits(score)) + ":" + id);
+    }
+
+    public static ScoreCursor decodeScore(String cursor) {
+        String value = decode(cursor);
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        try {
+            return new ScoreCursor(Float.intBitsToFloat(Integer.parseUnsignedInt(value.substring(0, colon), 16)), Long.parseLong(value.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}: the extra row only signals that
+     * another page exists and is dropped from the result.
+     */
+    public static <E, T> CursorPageDto<T> toPage(List<E> rows, int size, Function<E, String> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        List<T> items = pageRows.stream().map(mapper).toList();
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+
+        return new CursorPageDto<>(items, nextCursor);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    public static class KeysetCursor {
+        private final OffsetDateTime createdAt;
+        private final Long id;
+
+        public KeysetCursor(OffsetDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public OffsetDateTime getCreatedAt() { return createdAt; }
+        public Long getId() { return id; }
+    }
+
+    public static class ScoreCursor {
+        private final float score;
+        private final Long id;
+
+        public ScoreCursor(float score, Long id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        public float getScore() { return score; }
+        public Long getId() { return id; }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.welog.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.StringJoiner;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import lombok.Getter;
+
+/**
+ * Validators for conditional GET, derived from a cheap version probe (updated_at columns and counters)
+ * instead of the response body. The ETag is strong: it changes whenever any probed part changes;
+ * Last-Modified is the newest timestamp among the parts.
+ */
+@Getter
+public class ResourceVersion {
+    private final String etag;
+    private final long lastModified;
+
+    private ResourceVersion(String etag, long lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public static ResourceVersion of(Object... parts) {
+        StringJoiner fingerprint = new StringJoiner("|");
+        long lastModified = -1;
+        for (Object part : parts) {
+            if (part instanceof OffsetDateTime timestamp) {
+                fingerprint.add(timestamp.toInstant().toString());
+                lastModified = Math.max(lastModified, timestamp.toInstant().toEpochMilli());
+            } else {
+                fingerprint.add(String.valueOf(part));
+            }
+        }
+        return new ResourceVersion(quote(DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8))), lastModified);
+    }
+
+    // Distinct representations of the same version (e.g. gzip vs identity) need distinct strong ETags
+    public ResourceVersion variant(String name) {
+        return new ResourceVersion(etag.substring(0, etag.length() - 1) + "-" + name + "\"", lastModified);
+    }
+
+    /**
+     * Writes ETag, Last-Modified and Cache-Control: no-cache (revalidate on every use) to the response.
+     * Returns true when the client's copy is current; the status is then already 304 and the handler returns null.
+     */
+    public boolean checkNotModified(ServletWebRequest request) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
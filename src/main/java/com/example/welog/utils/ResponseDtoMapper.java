@@ -1,16 +1,21 @@
 package com.example.welog.utils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.example.welog.dto.CommentResponseDto;
-import com.example.welog.dto.NotificationResponseDto;
+import com.example.welog.dto.CommentThreadDto;
+import com.example.welog.dto.CursorPageDto;
 import com.example.welog.dto.PostResponseDto;
 import com.example.welog.dto.TagResponseDto;
 import com.example.welog.dto.UserResponseDto;
 import com.example.welog.model.Comment;
-import com.example.welog.model.Notification;
 import com.example.welog.model.Post;
 import com.example.welog.model.User;
 import org.slf4j.Logger;
@@ -63,6 +68,7 @@ public class ResponseDtoMapper {
                 post.getCoverImage(),
                 authorDto,
                 post.getCreatedAt(),
+                post.getLikeCount(),
                 tagDtos,
                 commentsDto
         );
@@ -87,20 +93,67 @@ public class ResponseDtoMapper {
         );
     }
 
-    public static NotificationResponseDto mapToNotificationResponseDto(Notification notification) {
-        UserResponseDto recipientDto = mapToUserResponseDto(notification.getRecipient());
-        UserResponseDto senderDto = mapToUserResponseDto(notification.getSender());
-        PostResponseDto postDto = mapToPostResponseDto(notification.getPost());
-
-        return new NotificationResponseDto(
-                notification.getId(),
-                recipientDto,
-                senderDto,
-                postDto,
-                notification.getType(),
-                notification.getMessage(),
-                notification.isRead(),
-                notification.getCreatedAt()
+    /**
+     * Builds the reply trees of a post from all of its comments (oldest first) in one pass, without touching
+     * {@code Comment.getReplies()}. Replies deeper than {@code maxLevel}, and replies whose parent is not in the
+     * list (deleted), are left out, as they are when the tree is walked through the entities.
+     */
+    public static List<CommentResponseDto> mapToCommentThreads(List<Comment> comments, int maxLevel) {
+        Map<Long, List<Comment>> repliesByParentId = new HashMap<>();
+        List<Comment> roots = new ArrayList<>();
+        for (Comment comment : comments) {
+            // The parent is a lazy reference: reading its id does not load it
+            if (comment.getParent() == null) {
+                roots.add(comment);
+            } else {
+                repliesByParentId.computeIfAbsent(comment.getParent().getId(), id -> new ArrayList<>()).add(comment);
+            }
+        }
+
+        Map<Long, UserResponseDto> users = new HashMap<>();
+        return roots.stream()
+                .map(root -> mapToCommentThread(root, repliesByParentId, users, maxLevel))
+                .toList();
+    }
+
+    /**
+     * Maps a comment with the replies fetched for its preview: up to {@code previewSize + 1} of them, oldest first,
+     * the extra one only telling that more exist. Never touches {@code Comment.getReplies()}.
+     */
+    public static CommentThreadDto mapToCommentThreadDto(Comment comment, List<Comment> previewReplies, int previewSize) {
+        Map<Long, UserResponseDto> users = new HashMap<>();
+        CursorPageDto<CommentResponseDto> preview = CursorUtils.toPage(previewReplies, previewSize,
+                reply -> CursorUtils.encodeKeyset(reply.getCreatedAt(), reply.getId()),
+                reply -> mapToCommentThread(reply, Map.of(), users, reply.getLevel()));
+
+        return new CommentThreadDto(
+                comment.getId(),
+                comment.getContent(),
+                mapToUserResponseDto(comment.getUser()),
+                comment.getLevel(),
+                comment.getCreatedAt(),
+                preview.getItems(),
+                preview.getNextCursor() != null,
+                preview.getNextCursor()
+        );
+    }
+
+    // Children first, so each DTO is complete before it goes into its parent's (hashed) replies set
+    private static CommentResponseDto mapToCommentThread(Comment comment, Map<Long, List<Comment>> repliesByParentId, Map<Long, UserResponseDto> users, int maxLevel) {
+        Set<CommentResponseDto> repliesDto = new LinkedHashSet<>();
+        if (comment.getLevel() < maxLevel) {
+            for (Comment reply : repliesByParentId.getOrDefault(comment.getId(), List.of())) {
+                repliesDto.add(mapToCommentThread(reply, repliesByParentId, users, maxLevel));
+            }
+        }
+
+        return new CommentResponseDto(
+                comment.getId(),
+                comment.getContent(),
+                users.computeIfAbsent(comment.getUser().getId(), id -> mapToUserResponseDto(comment.getUser())),
+                comment.getLevel(),
+                repliesDto,
+                comment.getCreatedAt()
         );
     }
 }
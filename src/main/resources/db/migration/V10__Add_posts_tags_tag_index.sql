@@ -0,0 +1,4 @@
+-- posts_tags is keyed (post_id, tag_id); listing a tag's posts (GET /api/v1/tags/{name}/posts)
+-- needs the reverse direction, and an index-only scan keeps it off the heap.
+CREATE INDEX IF NOT EXISTS idx_posts_tags_tag_id_post_id
+    ON posts_tags (tag_id, post_id);
@@ -0,0 +1,17 @@
+-- Denormalized like count, so post pages and cards never count posts_likes.
+-- Maintained by the application (PostLikeCounter buffers likes/unlikes and flushes deltas in batches).
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+
+-- A counter flush is not an edit of the post: only bump updated_at when the post itself changes,
+-- otherwise every flush would invalidate ETags and re-feed the search index sync.
+CREATE OR REPLACE TRIGGER trg_posts_updated_at
+BEFORE UPDATE OF title, slug, content, excerpt, cover_image, author_id, deleted_at ON posts
+FOR EACH ROW
+EXECUTE FUNCTION auto_update_updated_at();
+
+UPDATE posts
+SET like_count = (
+    SELECT COUNT(*)
+    FROM posts_likes pl
+    WHERE pl.post_id = posts.id AND pl.deleted_at IS NULL
+);
@@ -0,0 +1,7 @@
+-- Likers of a post, newest first (GET /api/v1/posts/{postId}/likes): keyset over (created_at, user_id)
+-- within one post. The primary key (user_id, post_id) leads with the user, so it cannot serve this.
+UPDATE posts_likes SET created_at = NOW() WHERE created_at IS NULL;
+ALTER TABLE posts_likes ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_posts_likes_post_id_created_at
+    ON posts_likes (post_id, created_at DESC, user_id DESC);
@@ -0,0 +1,19 @@
+-- Transactional outbox for notifications: the write path (e.g. a like) inserts one row here in its own
+-- transaction, and NotificationOutboxDispatcher turns rows into notifications in the background.
+-- No foreign keys on purpose: the outbox must never block or fail the write that fills it.
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    recipient_id INT NOT NULL,
+    sender_id INT NOT NULL,
+    post_id INT,
+    type VARCHAR(50) NOT NULL,
+    message TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    last_error TEXT
+);
+
+-- The dispatcher's poll: due rows in id order
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_next_attempt_at_id
+    ON notification_outbox (next_attempt_at, id);
@@ -0,0 +1,22 @@
+-- Denormalized unread counter, so the notification badge is a primary key lookup instead of a COUNT.
+-- Maintained by the application in the same transaction as the notification writes: the outbox dispatcher adds
+-- what it inserts, the bulk mark-read statements subtract what they actually flipped.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS unread_notification_count INT NOT NULL DEFAULT 0;
+
+-- A counter change is not an edit of the user: only bump updated_at when the profile itself changes
+CREATE OR REPLACE TRIGGER trg_users_updated_at
+BEFORE UPDATE OF name, email, photo, password, password_changed_at, password_reset_token, password_reset_expires, deleted_at ON users
+FOR EACH ROW
+EXECUTE FUNCTION auto_update_updated_at();
+
+UPDATE users
+SET unread_notification_count = (
+    SELECT COUNT(*)
+    FROM notifications n
+    WHERE n.recipient_id = users.id AND n.is_read = FALSE AND n.deleted_at IS NULL
+);
+
+-- Mark-all-read only touches the unread rows of one recipient
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_id_unread
+    ON notifications (recipient_id)
+    WHERE is_read = FALSE;
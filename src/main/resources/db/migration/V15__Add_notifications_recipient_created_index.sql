@@ -0,0 +1,8 @@
+-- A user's inbox, newest first (GET /api/v1/users/{userId}/notifications/scroll): keyset over (created_at, id)
+-- within one recipient, read straight off the index instead of sorting all of the user's notifications.
+UPDATE notifications SET created_at = NOW() WHERE created_at IS NULL;
+ALTER TABLE notifications ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_id_created_at_id
+    ON notifications (recipient_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,12 @@
+-- Coalesced notifications ("Alice and 41 others liked your post"): NotificationOutboxDispatcher keeps one row per
+-- recipient, post, type and time window instead of one per like. group_window_start is the start of the window
+-- (NULL for notifications that are never coalesced), actor_count how many actors the row stands for, and
+-- latest_actor_ids the most recent distinct actors, newest first, comma separated.
+ALTER TABLE notifications
+    ADD COLUMN IF NOT EXISTS actor_count INT NOT NULL DEFAULT 1,
+    ADD COLUMN IF NOT EXISTS latest_actor_ids VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS group_window_start TIMESTAMPTZ;
+
+-- One rolled-up row per group; also how the dispatcher finds it. NULL windows never conflict.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_notifications_recipient_post_type_window
+    ON notifications (recipient_id, post_id, type, group_window_start);
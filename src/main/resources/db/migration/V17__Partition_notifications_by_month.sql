@@ -0,0 +1,75 @@
+-- notifications becomes a table partitioned by month of created_at (UTC), so old notifications are removed by
+-- dropping (or detaching) a whole partition (NotificationPartitionMaintainer) instead of deleting row by row, and
+-- inbox queries bounded by created_at only touch the recent partitions.
+--
+-- The primary key has to include the partition key, hence (id, created_at). Ids come from a plain sequence:
+-- identity columns are not supported on partitioned tables by every PostgreSQL version we run on.
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+DROP INDEX IF EXISTS idx_notifications_recipient_id_unread;
+DROP INDEX IF EXISTS idx_notifications_recipient_id_created_at_id;
+DROP INDEX IF EXISTS uq_notifications_recipient_post_type_window;
+
+CREATE SEQUENCE IF NOT EXISTS notification_id_seq AS BIGINT;
+
+CREATE TABLE notifications (
+    id BIGINT NOT NULL DEFAULT nextval('notification_id_seq'),
+    recipient_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    sender_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    post_id INT REFERENCES posts(id) ON DELETE CASCADE,
+    type VARCHAR(50) NOT NULL,
+    message TEXT,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ DEFAULT NULL,
+    deleted_at TIMESTAMPTZ DEFAULT NULL,
+    actor_count INT NOT NULL DEFAULT 1,
+    latest_actor_ids VARCHAR(100),
+    group_window_start TIMESTAMPTZ,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE notification_id_seq OWNED BY notifications.id;
+
+-- Created on every partition, present and future
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_id_created_at_id
+    ON notifications (recipient_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_id_unread
+    ON notifications (recipient_id)
+    WHERE is_read = FALSE;
+
+-- One month, [month_start, month_start + 1 month) in UTC, named notifications_YYYY_MM.
+-- A unique index on the partitioned table would have to include created_at, which a coalesced group's rows do not
+-- share; coalescing windows of up to a day never span two months, so the group key is unique per partition instead.
+CREATE OR REPLACE FUNCTION create_notifications_partition(month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := 'notifications_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                   partition_name,
+                   month_start::timestamp AT TIME ZONE 'UTC',
+                   (month_start + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC');
+    EXECUTE format('CREATE UNIQUE INDEX IF NOT EXISTS %I ON %I (recipient_id, post_id, type, group_window_start)',
+                   partition_name || '_group_key', partition_name);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every month with data, up to two months ahead (the maintainer keeps that margin from now on)
+SELECT create_notifications_partition(month_start::date)
+FROM generate_series(
+        date_trunc('month', LEAST(COALESCE((SELECT MIN(created_at) FROM notifications_unpartitioned), NOW()), NOW()) AT TIME ZONE 'UTC'),
+        date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '2 months',
+        INTERVAL '1 month') AS month_start;
+
+INSERT INTO notifications (id, recipient_id, sender_id, post_id, type, message, is_read, created_at, updated_at,
+                           deleted_at, actor_count, latest_actor_ids, group_window_start)
+SELECT id, recipient_id, sender_id, post_id, type, message, COALESCE(is_read, FALSE), created_at, updated_at,
+       deleted_at, actor_count, latest_actor_ids, group_window_start
+FROM notifications_unpartitioned;
+
+SELECT setval('notification_id_seq', COALESCE((SELECT MAX(id) FROM notifications), 0) + 1, false);
+
+DROP TABLE notifications_unpartitioned;
@@ -0,0 +1,9 @@
+-- Threaded comment paging (GET /api/v1/posts/{postId}/comments/threads and /api/v1/comments/{id}/replies):
+-- root comments of a post and the replies of one comment, each in (created_at, id) order straight off an index.
+CREATE INDEX IF NOT EXISTS idx_comments_post_id_level_created_at_id
+    ON comments (post_id, level, created_at, id)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_comments_parent_id_created_at_id
+    ON comments (parent_id, created_at, id)
+    WHERE deleted_at IS NULL;
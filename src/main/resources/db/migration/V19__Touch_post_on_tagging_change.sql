@@ -0,0 +1,19 @@
+-- Adding or removing a tag only writes posts_tags, so posts.updated_at, and with it the post's ETag and
+-- Last-Modified (PostRepository.findVersionById), did not move. Touch the post on every tagging change.
+CREATE OR REPLACE FUNCTION touch_post_on_tagging_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'DELETE' THEN
+        UPDATE posts SET updated_at = NOW() WHERE id = NEW.post_id;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE posts SET updated_at = NOW() WHERE id = OLD.post_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_posts_tags_touch_post
+AFTER INSERT OR UPDATE OR DELETE ON posts_tags
+FOR EACH ROW
+EXECUTE FUNCTION touch_post_on_tagging_change();
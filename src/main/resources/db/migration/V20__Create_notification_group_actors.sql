@@ -0,0 +1,24 @@
+-- Distinct actors of each coalesced notification (see V16), so actor_count counts people rather than likes:
+-- NotificationOutboxDispatcher only counts an actor whose row it actually inserted.
+-- A group only takes folds while its window is open (plus outbox retries); NotificationPartitionMaintainer
+-- deletes the rows of windows that ended long ago.
+CREATE TABLE IF NOT EXISTS notification_group_actors (
+    recipient_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    group_window_start TIMESTAMPTZ NOT NULL,
+    actor_id BIGINT NOT NULL,
+    PRIMARY KEY (recipient_id, post_id, type, group_window_start, actor_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_group_actors_window
+    ON notification_group_actors (group_window_start);
+
+-- Groups still open keep counting from here: seed them with the actors they already list
+INSERT INTO notification_group_actors (recipient_id, post_id, type, group_window_start, actor_id)
+SELECT n.recipient_id, n.post_id, n.type, n.group_window_start, CAST(actor.id AS BIGINT)
+FROM notifications n
+CROSS JOIN LATERAL unnest(string_to_array(n.latest_actor_ids, ',')) AS actor(id)
+WHERE n.group_window_start IS NOT NULL
+  AND n.group_window_start >= NOW() - INTERVAL '1 day'
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,8 @@
+-- Keyset pagination over (created_at, id) for the /scroll endpoints
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id
+    ON posts (created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_comments_post_id_created_at_id
+    ON comments (post_id, created_at, id)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,17 @@
+-- Backs slug lookups that miss the in-memory slug index (GET /api/v1/posts/by-slug/{slug}).
+-- Not partial: soft-deleted posts keep their slug reserved.
+
+-- Titles were never unique, so existing slugs may be too. The first live post (then the oldest) keeps the
+-- slug; every other one gets its id appended, which is unique on its own.
+UPDATE posts p
+SET slug = p.slug || '-' || p.id
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY slug ORDER BY deleted_at IS NOT NULL, created_at, id) AS rn
+    FROM posts
+    WHERE slug IS NOT NULL
+) ranked
+WHERE p.id = ranked.id
+  AND ranked.rn > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_posts_slug
+    ON posts (slug);
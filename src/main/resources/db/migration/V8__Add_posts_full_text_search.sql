@@ -0,0 +1,37 @@
+-- Full-text search over posts (GET /api/v1/posts/search?mode=fulltext).
+-- Title weighs most, then excerpt, then content with HTML tags stripped.
+-- The text search configuration must match PostSearchService.TEXT_SEARCH_CONFIG.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION posts_search_vector_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('english', coalesce(NEW.title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(NEW.excerpt, '')), 'B') ||
+        setweight(to_tsvector('english', regexp_replace(coalesce(NEW.content, ''), '<[^>]*>', ' ', 'g')), 'C');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_posts_search_vector
+BEFORE INSERT OR UPDATE OF title, excerpt, content ON posts
+FOR EACH ROW
+EXECUTE FUNCTION posts_search_vector_update();
+
+-- Backfill existing rows. Computing the vector is not an edit of the post, so keep trg_posts_updated_at
+-- (which fires on any update at this point) from bumping updated_at and with it every post's ETag.
+ALTER TABLE posts DISABLE TRIGGER trg_posts_updated_at;
+
+UPDATE posts
+SET search_vector =
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(excerpt, '')), 'B') ||
+        setweight(to_tsvector('english', regexp_replace(coalesce(content, ''), '<[^>]*>', ' ', 'g')), 'C')
+WHERE search_vector IS NULL;
+
+ALTER TABLE posts ENABLE TRIGGER trg_posts_updated_at;
+
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector
+    ON posts USING GIN (search_vector)
+    WHERE deleted_at IS NULL;
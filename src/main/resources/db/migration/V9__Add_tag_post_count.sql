@@ -0,0 +1,15 @@
+-- Per-tag count of live posts, maintained by the application on every tagging change
+-- (see TagPopularityIndex) instead of a GROUP BY over posts_tags on every read.
+ALTER TABLE tags ADD COLUMN IF NOT EXISTS post_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE tags
+SET post_count = (
+    SELECT COUNT(*)
+    FROM posts_tags pt
+    JOIN posts p ON p.id = pt.post_id
+    WHERE pt.tag_id = tags.id AND p.deleted_at IS NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_tags_post_count_id
+    ON tags (post_count DESC, id)
+    WHERE deleted_at IS NULL;
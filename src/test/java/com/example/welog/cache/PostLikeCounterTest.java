@@ -0,0 +1,130 @@
+package com.example.welog.cache;
+
+import com.example.welog.dto.PostResponseDto;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.event.PostLikeCountsFlushedEvent;
+import com.example.welog.repository.PostRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostLikeCounterTest {
+    private PostRepository postRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PostLikeCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        counter = new PostLikeCounter(postRepository, eventPublisher, 4);
+    }
+
+    @Test
+    void flush_GroupsPostsWithTheSameDeltaIntoOneUpdate() {
+        like(1L, 2);
+        like(2L, 2);
+        like(3L, 1);
+        counter.onPostLikeChanged(new PostLikeChangedEvent(9L, 4L, PostLikeChangedEvent.Type.UNLIKED));
+
+        counter.flush();
+
+        verify(postRepository).addLikeCounts(eq(2L), argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+        verify(postRepository).addLikeCounts(1L, List.of(3L));
+        verify(postRepository).addLikeCounts(-1L, List.of(4L));
+        assertThat(counter.pending(1L)).isZero();
+    }
+
+    @Test
+    void flush_LikeThenUnlike_WritesNothing() {
+        like(1L, 1);
+        counter.onPostLikeChanged(new PostLikeChangedEvent(9L, 1L, PostLikeChangedEvent.Type.UNLIKED));
+
+        counter.flush();
+
+        verify(postRepository, never()).addLikeCounts(anyLong(), anyCollection());
+    }
+
+    @Test
+    void flush_WhenUpdateFails_KeepsDeltasForNextFlush() {
+        like(1L, 3);
+        when(postRepository.addLikeCounts(anyLong(), anyCollection())).thenThrow(new RuntimeException("connection reset"));
+
+        counter.flush();
+
+        assertThat(counter.pending(1L)).isEqualTo(3);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void flush_DetailCachedWhileUpdateCommits_CountStaysStable() {
+        AtomicLong likeCountColumn = new AtomicLong(10);
+        PostDetailCache detailCache = new PostDetailCache(100, Duration.ofMinutes(10));
+        doAnswer(invocation -> {
+            detailCache.onPostLikeCountsFlushed(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(PostLikeCountsFlushedEvent.class));
+        when(postRepository.addLikeCounts(anyLong(), anyCollection())).thenAnswer(invocation -> {
+            likeCountColumn.addAndGet(invocation.getArgument(0));
+            // A reader loading the detail right after the commit still sees the deltas as pending
+            detailCache.get(1L, id -> detail(likeCountColumn.get() + counter.pending(id)));
+            return 1;
+        });
+        like(1L, 3);
+        long before = detailCache.get(1L, id -> detail(likeCountColumn.get() + counter.pending(id))).getLikeCount();
+        detailCache.evict(1L);
+
+        counter.flush();
+
+        long after = detailCache.get(1L, id -> detail(likeCountColumn.get() + counter.pending(id))).getLikeCount();
+        assertThat(before).isEqualTo(13);
+        assertThat(after).isEqualTo(13);
+        assertThat(counter.pending(1L)).isZero();
+    }
+
+    @Test
+    void add_ConcurrentLikesAcrossStripes_AreAllCounted() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            pool.execute(() -> counter.add(1L, 1));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(counter.pending(1L)).isEqualTo(8_000);
+        counter.flush();
+        verify(postRepository).addLikeCounts(8_000L, List.of(1L));
+    }
+
+    private static PostResponseDto detail(long likeCount) {
+        PostResponseDto dto = new PostResponseDto();
+        dto.setLikeCount(likeCount);
+        return dto;
+    }
+
+    private void like(Long postId, int times) {
+        for (int i = 0; i < times; i++) {
+            counter.onPostLikeChanged(new PostLikeChangedEvent((long) i, postId, PostLikeChangedEvent.Type.LIKED));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.welog.cache;
+
+import com.example.welog.dto.TagCountDto;
+import com.example.welog.event.PostTagsChangedEvent;
+import com.example.welog.repository.TagRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TagPopularityIndexTest {
+    private TagRepository tagRepository;
+    private TagPopularityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository = mock(TagRepository.class);
+        index = new TagPopularityIndex(tagRepository);
+    }
+
+    @Test
+    void onPostTagsChanged_MovesTagInRanking() {
+        when(tagRepository.findTagPostCounts()).thenReturn(List.of(tagRow(1L, "java", 2), tagRow(2L, "spring", 2)));
+        index.load();
+
+        index.onPostTagsChanged(new PostTagsChangedEvent(10L, List.of(2L), List.of(1L)));
+
+        assertThat(index.top(2)).extracting(TagCountDto::getName).containsExactly("spring", "java");
+        assertThat(index.top(2)).extracting(TagCountDto::getPostCount).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void reconcile_DeltaArrivingWhileCountsAreRead_IsKept() {
+        when(tagRepository.findTagPostCounts())
+                .thenReturn(List.of(tagRow(1L, "java", 5)))
+                .thenAnswer(invocation -> {
+                    // A post tagged "java" commits after the recount has read its snapshot
+                    index.onPostTagsChanged(new PostTagsChangedEvent(10L, List.of(1L), List.of()));
+                    return List.of(tagRow(1L, "java", 5));
+                });
+        index.load();
+
+        index.reconcile();
+
+        assertThat(index.top(1)).extracting(TagCountDto::getPostCount).containsExactly(6L);
+    }
+
+    private static TagRepository.TagPostCount tagRow(Long id, String name, long postCount) {
+        return new TagRepository.TagPostCount() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+            public Long getPostCount() { return postCount; }
+        };
+    }
+}
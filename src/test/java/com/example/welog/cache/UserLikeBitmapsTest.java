@@ -0,0 +1,77 @@
+package com.example.welog.cache;
+
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.repository.PostLikeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserLikeBitmapsTest {
+    private PostLikeRepository postLikeRepository;
+    private UserLikeBitmaps bitmaps;
+
+    @BeforeEach
+    void setUp() {
+        postLikeRepository = mock(PostLikeRepository.class);
+        bitmaps = new UserLikeBitmaps(postLikeRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void likedAmong_LoadsOnceAndKeepsRequestOrder() {
+        when(postLikeRepository.findPostIdsByUserId(1L)).thenReturn(List.of(3L, 70_000L, 5L));
+
+        List<Long> first = bitmaps.likedAmong(1L, List.of(5L, 4L, 70_000L, 3L, 5L));
+        List<Long> second = bitmaps.likedAmong(1L, List.of(6L));
+
+        assertThat(first).containsExactly(5L, 70_000L, 3L);
+        assertThat(second).isEmpty();
+        verify(postLikeRepository, times(1)).findPostIdsByUserId(1L);
+    }
+
+    @Test
+    void onPostLikeChanged_UpdatesLoadedBitmapsOnly() {
+        when(postLikeRepository.findPostIdsByUserId(1L)).thenReturn(List.of(1L));
+        bitmaps.likedAmong(1L, List.of());
+
+        bitmaps.onPostLikeChanged(new PostLikeChangedEvent(1L, 2L, PostLikeChangedEvent.Type.LIKED));
+        bitmaps.onPostLikeChanged(new PostLikeChangedEvent(1L, 1L, PostLikeChangedEvent.Type.UNLIKED));
+        bitmaps.onPostLikeChanged(new PostLikeChangedEvent(2L, 9L, PostLikeChangedEvent.Type.LIKED)); // not loaded
+
+        assertThat(bitmaps.likedAmong(1L, List.of(1L, 2L))).containsExactly(2L);
+        assertThat(bitmaps.stats().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void bitmap_DenseContainerConvertsBothWays() {
+        PostIdBitmap bitmap = new PostIdBitmap();
+        List<Long> ids = new ArrayList<>();
+        LongStream.rangeClosed(1, 5_000).map(i -> i * 2).forEach(ids::add); // one container, past the array limit
+
+        ids.forEach(bitmap::add);
+        assertThat(bitmap.add(10L)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(5_000);
+        assertThat(bitmap.contains(9_998L)).isTrue();
+        assertThat(bitmap.contains(9_999L)).isFalse();
+
+        ids.subList(0, 4_000).forEach(bitmap::remove); // back under the limit
+        assertThat(bitmap.cardinality()).isEqualTo(1_000);
+        assertThat(bitmap.contains(8_000L)).isFalse();
+        assertThat(bitmap.contains(8_002L)).isTrue();
+
+        ids.subList(4_000, 5_000).forEach(bitmap::remove);
+        assertThat(bitmap.cardinality()).isZero();
+        assertThat(bitmap.contains(10_000L)).isFalse();
+        assertThat(bitmap.remove(10_000L)).isFalse();
+    }
+}
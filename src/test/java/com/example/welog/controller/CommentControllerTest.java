@@ -6,6 +6,7 @@ import com.example.welog.model.ERole;
 import com.example.welog.model.Role;
 import com.example.welog.model.User;
 import com.example.welog.service.CommentService;
+import com.example.welog.utils.ResourceVersion;
 import com.example.welog.utils.ResponseDtoMapper;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,8 +15,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -26,6 +31,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -69,12 +76,45 @@ class CommentControllerTest {
 
     @Test
     void getCommentsByPostId_ReturnsComments() {
+        ResourceVersion version = ResourceVersion.of(1L, 1L, OffsetDateTime.now());
+        when(commentService.getCommentsVersion(1L)).thenReturn(version);
         when(commentService.getCommentsByPostId(1L)).thenReturn(List.of(commentResponseDto));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
 
-        ResponseEntity<List<CommentResponseDto>> response = commentController.getCommentsByPostId(1L);
+        ResponseEntity<List<CommentResponseDto>> response = commentController.getCommentsByPostId(1L, "flat", getRequest(servletResponse));
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).containsExactly(commentResponseDto);
+        assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(version.getEtag());
+    }
+
+    @Test
+    void getCommentsByPostId_WhenETagMatches_ReturnsNotModified() {
+        ResourceVersion version = ResourceVersion.of(1L, 1L, OffsetDateTime.now());
+        when(commentService.getCommentsVersion(1L)).thenReturn(version);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletWebRequest webRequest = getRequest(servletResponse);
+        ((MockHttpServletRequest) webRequest.getRequest()).addHeader(HttpHeaders.IF_NONE_MATCH, version.getEtag());
+
+        ResponseEntity<List<CommentResponseDto>> response = commentController.getCommentsByPostId(1L, "flat", webRequest);
+
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(commentService, never()).getCommentsByPostId(anyLong());
+    }
+
+    @Test
+    void getCommentsByPostId_Threaded_ReturnsThreadsWithOwnETag() {
+        ResourceVersion version = ResourceVersion.of(1L, 1L, OffsetDateTime.now());
+        when(commentService.getCommentsVersion(1L)).thenReturn(version);
+        when(commentService.getCommentThreadsByPostId(1L)).thenReturn(List.of(commentResponseDto));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<List<CommentResponseDto>> response = commentController.getCommentsByPostId(1L, "threaded", getRequest(servletResponse));
+
+        assertThat(response.getBody()).containsExactly(commentResponseDto);
+        assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(version.variant("threaded").getEtag());
+        verify(commentService, never()).getCommentsByPostId(anyLong());
     }
 
     @Test
@@ -99,4 +139,8 @@ class CommentControllerTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
-}
\ No newline at end of file
+
+    private static ServletWebRequest getRequest(MockHttpServletResponse response) {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/posts/1/comments"), response);
+    }
+}
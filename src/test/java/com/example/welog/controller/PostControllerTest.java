@@ -2,10 +2,13 @@ package com.example.welog.controller;
 
 import static org.mockito.ArgumentMatchers.*;
 
+import java.io.ByteArrayInputStream;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,33 +16,49 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import com.example.welog.cache.PostResponseCache;
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.PostCardDto;
 import com.example.welog.dto.PostCreateDto;
 import com.example.welog.dto.PostPatchDto;
 import com.example.welog.dto.PostResponseDto;
+import com.example.welog.dto.PostSearchHitDto;
+import com.example.welog.dto.UserSummaryDto;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.event.UserProfileChangedEvent;
 import com.example.welog.exception.ResourceNotFoundException;
 import com.example.welog.model.ERole;
 import com.example.welog.model.Post;
 import com.example.welog.model.Role;
 import com.example.welog.model.User;
+import com.example.welog.service.PostSearchService;
 import com.example.welog.service.PostService;
+import com.example.welog.utils.ResourceVersion;
 import com.example.welog.utils.ResponseDtoMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @WebMvcTest(PostController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(PostResponseCache.class)
 public class PostControllerTest {
   @Autowired
   private MockMvc mockMvc;
@@ -47,9 +66,15 @@ public class PostControllerTest {
   @MockitoBean
   private PostService postService;
 
+  @MockitoBean
+  private PostSearchService postSearchService;
+
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private PostResponseCache postResponseCache;
+
   // @Autowired
   // private WebApplicationContext webApplicationContext;
 
@@ -64,6 +89,7 @@ public class PostControllerTest {
   @BeforeEach
   void setUp() {
     // mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    postResponseCache.clear();
 
     role = new Role();
     role.setName(ERole.ROLE_USER);
@@ -121,6 +147,25 @@ public class PostControllerTest {
     verify(postService, times(1)).getAllPosts(any(Pageable.class));
   }
 
+  @Test
+  void getPostFeed_ValidRequest_ReturnsPostCards() throws Exception {
+    // Arrange
+    PostCardDto card = new PostCardDto(1L, "test-post", "Test Post", "Test excerpt", "test-cover.jpg",
+        new UserSummaryDto(1L, "Test User", null), OffsetDateTime.now(), List.of("java"), 2, 3);
+    when(postService.getPostFeed(any(Pageable.class))).thenReturn(List.of(card));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/feed"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$[0].slug").value("test-post"))
+        .andExpect(jsonPath("$[0].author.name").value("Test User"))
+        .andExpect(jsonPath("$[0].tags[0]").value("java"))
+        .andExpect(jsonPath("$[0].content").doesNotExist());
+
+    verify(postService, times(1)).getPostFeed(any(Pageable.class));
+  }
+
   @Test
   void getPost_ExistingPostId_ReturnsPostResponseDto() throws Exception {
     // Arrange
@@ -147,6 +192,161 @@ public class PostControllerTest {
     verify(postService, times(1)).getPost(999L);
   }
 
+  @Test
+  void getPost_WhenETagMatches_ReturnsNotModifiedWithoutLoading() throws Exception {
+    // Arrange
+    ResourceVersion version = ResourceVersion.of(OffsetDateTime.now(), 0L);
+    when(postService.getPostVersion(1L)).thenReturn(Optional.of(version));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/1").header(HttpHeaders.IF_NONE_MATCH, version.getEtag()))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, version.getEtag()));
+
+    verify(postService, never()).getPost(anyLong());
+  }
+
+  @Test
+  void getPost_WhenETagStale_ReturnsPostWithNewETag() throws Exception {
+    // Arrange
+    ResourceVersion version = ResourceVersion.of(OffsetDateTime.now(), 1L);
+    when(postService.getPostVersion(1L)).thenReturn(Optional.of(version));
+    when(postService.getPost(1L)).thenReturn(postResponseDto);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/1").header(HttpHeaders.IF_NONE_MATCH, ResourceVersion.of(OffsetDateTime.now(), 0L).getEtag()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, version.getEtag()))
+        .andExpect(jsonPath("$.id").value(1));
+  }
+
+  @Test
+  void searchPosts_FullTextMode_UsesRankedSearch() throws Exception {
+    // Arrange
+    when(postSearchService.searchFullText(eq("spring boot"), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(postResponseDto)));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/search").param("q", "spring boot").param("mode", "fulltext"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].id").value(1));
+
+    verify(postService, never()).searchPostsByTitle(anyString(), any(Pageable.class));
+  }
+
+  @Test
+  void searchPosts_UnknownMode_ReturnsBadRequest() throws Exception {
+    mockMvc.perform(get("/api/v1/posts/search").param("q", "spring").param("mode", "fuzzy"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void searchPostIndex_PassesSearchAfterAndReturnsHits() throws Exception {
+    // Arrange
+    when(postSearchService.searchIndex("spring", "cursor", 5))
+        .thenReturn(new CursorPageDto<>(List.of(new PostSearchHitDto(1L, "test-post", "Test Post", 2.5f)), "next"));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/search/index").param("q", "spring").param("search_after", "cursor").param("size", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].slug").value("test-post"))
+        .andExpect(jsonPath("$.nextCursor").value("next"));
+  }
+
+  @Test
+  void getPostBySlug_ExistingSlug_ReturnsPost() throws Exception {
+    // Arrange
+    when(postService.getPostIdBySlug("test-post")).thenReturn(1L);
+    when(postService.getPost(1L)).thenReturn(postResponseDto);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/by-slug/test-post"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(1))
+        .andExpect(jsonPath("$.slug").value("test-post"));
+  }
+
+  @Test
+  void getPostBySlug_WhenNotExists_ReturnsNotFound() throws Exception {
+    // Arrange
+    when(postService.getPostIdBySlug("missing")).thenThrow(new ResourceNotFoundException("Post not found"));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/by-slug/missing"))
+        .andExpect(status().isNotFound());
+
+    verify(postService, never()).getPost(anyLong());
+  }
+
+  @Test
+  void getPost_CalledTwice_SerializesOnce() throws Exception {
+    // Arrange
+    when(postService.getPost(1L)).thenReturn(postResponseDto);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/posts/1")).andExpect(status().isOk());
+    mockMvc.perform(get("/api/v1/posts/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("Test Post"));
+
+    verify(postService, times(1)).getPost(1L);
+  }
+
+  @Test
+  void getPost_AfterLikeChanged_ReloadsPost() throws Exception {
+    // Arrange
+    when(postService.getPost(1L)).thenReturn(postResponseDto);
+    mockMvc.perform(get("/api/v1/posts/1")).andExpect(status().isOk());
+
+    // Act
+    postResponseCache.onPostLikeChanged(new PostLikeChangedEvent(2L, 1L, PostLikeChangedEvent.Type.LIKED));
+    mockMvc.perform(get("/api/v1/posts/1")).andExpect(status().isOk());
+
+    // Assert
+    verify(postService, times(2)).getPost(1L);
+  }
+
+  @Test
+  void getPost_AfterAuthorProfileChanged_ServesRefreshedBody() throws Exception {
+    // Arrange
+    when(postService.getPost(1L)).thenReturn(postResponseDto);
+    mockMvc.perform(get("/api/v1/posts/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.author.name", is("Test User")));
+    user.setName("Renamed User");
+    when(postService.getPost(1L)).thenReturn(ResponseDtoMapper.mapToPostResponseDto(post));
+
+    // Act
+    postResponseCache.onUserProfileChanged(new UserProfileChangedEvent(user.getId(), List.of(1L)));
+
+    // Assert
+    mockMvc.perform(get("/api/v1/posts/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.author.name", is("Renamed User")));
+  }
+
+  @Test
+  void getPost_AcceptsGzip_ReturnsGzippedJson() throws Exception {
+    // Arrange
+    post.setContent("Long content. ".repeat(200));
+    when(postService.getPost(1L)).thenReturn(ResponseDtoMapper.mapToPostResponseDto(post));
+
+    // Act
+    byte[] body = mockMvc.perform(get("/api/v1/posts/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    // Assert
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      PostResponseDto decoded = objectMapper.readValue(in, PostResponseDto.class);
+      assertThat(decoded.getTitle()).isEqualTo("Test Post");
+    }
+    mockMvc.perform(get("/api/v1/posts/1"))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(jsonPath("$.title").value("Test Post"));
+  }
+
   @Test
   void createPost_ValidData_ReturnsCreated() throws Exception {
       // Arrange
@@ -3,6 +3,7 @@ package com.example.welog.controller;
 import com.example.welog.dto.UserPatchDto;
 import com.example.welog.dto.UserResponseDto;
 import com.example.welog.service.UserService;
+import com.example.welog.utils.ResourceVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,17 +15,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,14 +67,29 @@ class UserControllerTest {
 
     @Test
     void getUser_WhenExists_ReturnsUser() {
+        when(userService.getVersion(1L)).thenReturn(Optional.of(ResourceVersion.of(OffsetDateTime.now(), 1)));
         when(userService.get(1L)).thenReturn(userResponseDto);
 
-        ResponseEntity<UserResponseDto> response = userController.getUser(1L);
+        ResponseEntity<UserResponseDto> response = userController.getUser(1L, getRequest());
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getEmail()).isEqualTo(userResponseDto.getEmail());
     }
 
+    @Test
+    void getUser_WhenNotModifiedSince_ReturnsNotModified() {
+        OffsetDateTime updatedAt = OffsetDateTime.now().minusDays(1);
+        when(userService.getVersion(1L)).thenReturn(Optional.of(ResourceVersion.of(updatedAt, 1)));
+        ServletWebRequest webRequest = getRequest();
+        ((MockHttpServletRequest) webRequest.getRequest()).addHeader(HttpHeaders.IF_MODIFIED_SINCE, updatedAt.plusSeconds(1).toInstant().toEpochMilli());
+
+        ResponseEntity<UserResponseDto> response = userController.getUser(1L, webRequest);
+
+        assertThat(response).isNull();
+        assertThat(((MockHttpServletResponse) webRequest.getResponse()).getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(userService, never()).get(anyLong());
+    }
+
     @Test
     void updateUser_WithValidData_UpdatesUser() {
         UserPatchDto patchDto = new UserPatchDto();
@@ -89,4 +112,8 @@ class UserControllerTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
-}
\ No newline at end of file
+
+    private static ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/users/1"), new MockHttpServletResponse());
+    }
+}
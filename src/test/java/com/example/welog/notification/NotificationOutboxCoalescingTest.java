@@ -0,0 +1,204 @@
+package com.example.welog.notification;
+
+import com.example.welog.dto.NotificationViewDto;
+import com.example.welog.dto.UserSummaryDto;
+import com.example.welog.event.NotificationsCreatedEvent;
+import com.example.welog.model.Post;
+import com.example.welog.model.User;
+import com.example.welog.repository.NotificationOutboxRepository;
+import com.example.welog.repository.NotificationRepository;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.repository.UserRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notification-coalescing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.notifications.coalesce.window=24h"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NotificationOutboxDispatcher.class, NotificationViewAssembler.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class NotificationOutboxCoalescingTest {
+    private static final OffsetDateTime SINCE = OffsetDateTime.now().minusDays(1);
+
+    @Autowired
+    private NotificationOutboxDispatcher dispatcher;
+
+    @Autowired
+    private NotificationViewAssembler viewAssembler;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+    private Post post;
+    private final List<User> likers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(newUser("Author"));
+        post = postRepository.save(new Post("Liked post", "Content", null, author));
+        for (int i = 0; i < 5; i++) {
+            likers.add(userRepository.save(newUser("Liker " + i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationOutboxRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM notification_group_actors");
+        notificationRepository.deleteAllInBatch();
+        postRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void dispatchBatch_LikesOfOnePost_RollUpIntoOneNotification() {
+        // Arrange: liker 0 likes again after unliking, which is not a new actor
+        List.of(0, 1, 2, 0, 3).forEach(i -> notificationOutboxRepository.enqueueLike(likers.get(i).getId(), post.getId()));
+
+        // Act
+        dispatcher.dispatchBatch();
+
+        // Assert
+        List<NotificationViewDto> views = viewAssembler.withLatestActors(notificationRepository.findViewsByRecipientId(author.getId(), SINCE));
+        assertThat(views).hasSize(1);
+        NotificationViewDto view = views.get(0);
+        assertThat(view.getActorCount()).isEqualTo(4);
+        assertThat(view.getSender().getName()).isEqualTo("Liker 3");
+        assertThat(view.getLatestActors()).extracting(UserSummaryDto::getName).containsExactly("Liker 3", "Liker 0", "Liker 2");
+        assertThat(view.getMessage()).isEqualTo("Liker 3 and 3 others liked your post: Liked post");
+        assertThat(userRepository.findUnreadNotificationCountById(author.getId())).contains(1);
+    }
+
+    @Test
+    void dispatchBatch_RepeatActorBeyondLatestActors_IsCountedOnce() {
+        // Arrange: three others push liker 0 out of the latest actors before liker 0 likes again
+        List.of(0, 1, 2, 3).forEach(i -> notificationOutboxRepository.enqueueLike(likers.get(i).getId(), post.getId()));
+        dispatcher.dispatchBatch();
+
+        // Act
+        notificationOutboxRepository.enqueueLike(likers.get(0).getId(), post.getId());
+        dispatcher.dispatchBatch();
+
+        // Assert
+        List<NotificationViewDto> views = viewAssembler.withLatestActors(notificationRepository.findViewsByRecipientId(author.getId(), SINCE));
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).getActorCount()).isEqualTo(4);
+        assertThat(views.get(0).getLatestActors()).extracting(UserSummaryDto::getName).containsExactly("Liker 0", "Liker 3", "Liker 2");
+    }
+
+    @Test
+    void dispatchBatch_LikeAfterRead_KeepsIdAndMakesItUnreadAgain() {
+        // Arrange
+        notificationOutboxRepository.enqueueLike(likers.get(0).getId(), post.getId());
+        dispatcher.dispatchBatch();
+        Long firstId = notificationRepository.findLatestIdByRecipientId(author.getId(), SINCE).orElseThrow();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.decrementUnreadNotificationCount(author.getId(), notificationRepository.markAllReadByRecipientId(author.getId())));
+
+        // Act
+        notificationOutboxRepository.enqueueLike(likers.get(1).getId(), post.getId());
+        dispatcher.dispatchBatch();
+
+        // Assert
+        List<NotificationViewDto> views = notificationRepository.findViewsByRecipientId(author.getId(), SINCE);
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).getId()).isEqualTo(firstId);
+        assertThat(views.get(0).isRead()).isFalse();
+        assertThat(views.get(0).getActorCount()).isEqualTo(2);
+        assertThat(userRepository.findUnreadNotificationCountById(author.getId())).contains(1);
+        assertThat(events.stream(NotificationsCreatedEvent.class).toList()).last()
+                .satisfies(event -> assertThat(event.getUpdatedIdsByRecipientId()).containsEntry(author.getId(), Set.of(firstId)));
+    }
+
+    @Test
+    void dispatchBatch_SeveralFolds_KeepIdAndCreatedAt() {
+        // Arrange
+        notificationOutboxRepository.enqueueLike(likers.get(0).getId(), post.getId());
+        dispatcher.dispatchBatch();
+        NotificationViewDto first = notificationRepository.findViewsByRecipientId(author.getId(), SINCE).get(0);
+
+        // Act
+        for (int i = 1; i < 4; i++) {
+            notificationOutboxRepository.enqueueLike(likers.get(i).getId(), post.getId());
+            dispatcher.dispatchBatch();
+        }
+
+        // Assert
+        List<NotificationViewDto> views = notificationRepository.findViewsByRecipientId(author.getId(), SINCE);
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).getId()).isEqualTo(first.getId());
+        assertThat(views.get(0).getCreatedAt()).isEqualTo(first.getCreatedAt());
+        assertThat(views.get(0).getActorCount()).isEqualTo(4);
+        assertThat(views.get(0).getSender().getName()).isEqualTo("Liker 3");
+        assertThat(userRepository.findUnreadNotificationCountById(author.getId())).contains(1);
+    }
+
+    @Test
+    void dispatchBatch_DifferentPosts_StaySeparate() {
+        // Arrange
+        Post other = postRepository.save(new Post("Other post", "Content", null, author));
+        notificationOutboxRepository.enqueueLike(likers.get(0).getId(), post.getId());
+        notificationOutboxRepository.enqueueLike(likers.get(1).getId(), other.getId());
+        notificationOutboxRepository.enqueueLike(likers.get(2).getId(), post.getId());
+
+        // Act
+        dispatcher.dispatchBatch();
+
+        // Assert
+        List<NotificationViewDto> views = notificationRepository.findViewsByRecipientId(author.getId(), SINCE);
+        assertThat(views).extracting(NotificationViewDto::getActorCount).containsExactlyInAnyOrder(2, 1);
+        assertThat(views).filteredOn(view -> view.getActorCount() == 1)
+                .extracting(NotificationViewDto::getMessage)
+                .containsExactly("Liker 1 liked your post: Other post");
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.replace(' ', '.').toLowerCase() + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
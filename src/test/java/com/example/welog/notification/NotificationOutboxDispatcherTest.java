@@ -0,0 +1,146 @@
+package com.example.welog.notification;
+
+import com.example.welog.model.Notification;
+import com.example.welog.model.NotificationOutbox;
+import com.example.welog.model.Post;
+import com.example.welog.model.User;
+import com.example.welog.repository.NotificationOutboxRepository;
+import com.example.welog.repository.NotificationRepository;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.repository.UserRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Committed transactions, as in production: the dispatcher runs its own. One notification per like here;
+// coalescing is covered by NotificationOutboxCoalescingTest.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notification-outbox;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.notifications.outbox.batch-size=2",
+        "app.notifications.coalesce.window=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(NotificationOutboxDispatcher.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationOutboxDispatcherTest {
+    @Autowired
+    private NotificationOutboxDispatcher dispatcher;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User author;
+    private User liker;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(newUser("Author", "author@example.com"));
+        liker = userRepository.save(newUser("Liker", "liker@example.com"));
+        post = postRepository.save(new Post("Liked post", "Content", null, author));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationOutboxRepository.deleteAllInBatch();
+        notificationRepository.deleteAllInBatch();
+        postRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void enqueueLike_BuildsMessageAndSkipsSelfLikes() {
+        // Act
+        notificationOutboxRepository.enqueueLike(liker.getId(), post.getId());
+        notificationOutboxRepository.enqueueLike(author.getId(), post.getId());
+
+        // Assert
+        List<NotificationOutbox> rows = notificationOutboxRepository.findAll();
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getRecipientId()).isEqualTo(author.getId());
+        assertThat(rows.get(0).getMessage()).isEqualTo("Liker liked your post: Liked post");
+    }
+
+    @Test
+    void dispatchBatch_DrainsOutboxInBatches() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            notificationOutboxRepository.enqueueLike(liker.getId(), post.getId());
+        }
+
+        // Act
+        int first = dispatcher.dispatchBatch();
+        int second = dispatcher.dispatchBatch();
+        int third = dispatcher.dispatchBatch();
+
+        // Assert
+        assertThat(List.of(first, second, third)).containsExactly(2, 1, 0);
+        assertThat(notificationOutboxRepository.count()).isZero();
+        List<Notification> notifications = notificationRepository.findAll();
+        assertThat(notifications).hasSize(3);
+        assertThat(notifications).allSatisfy(notification -> {
+            assertThat(notification.getType()).isEqualTo("LIKE");
+            assertThat(notification.getCreatedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void dispatchBatch_BadRowIsRetriedLaterWithoutBlockingTheOthers() {
+        // Arrange
+        NotificationOutbox orphan = new NotificationOutbox();
+        orphan.setRecipientId(999L); // no such user: the notification insert fails
+        orphan.setSenderId(liker.getId());
+        orphan.setType("LIKE");
+        notificationOutboxRepository.save(orphan);
+        notificationOutboxRepository.enqueueLike(liker.getId(), post.getId());
+
+        // Act
+        dispatcher.dispatchBatch();
+
+        // Assert
+        assertThat(notificationRepository.findAll()).hasSize(1);
+        NotificationOutbox failed = notificationOutboxRepository.findAll().get(0);
+        assertThat(failed.getId()).isEqualTo(orphan.getId());
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isNotBlank();
+        assertThat(dispatcher.dispatchBatch()).isZero(); // backing off
+    }
+
+    @Test
+    void constructor_WindowNotDividingADay_IsRejected() {
+        for (Duration window : List.of(Duration.ofHours(36), Duration.ofDays(7), Duration.ofHours(7))) {
+            assertThatThrownBy(() -> new NotificationOutboxDispatcher(null, null, null, 1, Duration.ofSeconds(5), 1, Duration.ofSeconds(30), window))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static User newUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.welog.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationPartitionMaintainerTest {
+    @Test
+    void expiredPartitions_OnlyWholeMonthsBeforeTheOldestKept() {
+        // Arrange
+        List<String> partitions = List.of("notifications_2026_05", "notifications_2025_12", "notifications_2026_04",
+                "notifications_2026_06", "notifications_archive_2025_01", "notifications_default");
+
+        // Act
+        List<String> expired = NotificationPartitionMaintainer.expiredPartitions(partitions, YearMonth.of(2026, 5));
+
+        // Assert
+        assertThat(expired).containsExactly("notifications_2025_12", "notifications_2026_04");
+    }
+
+    @Test
+    void inboxHorizon_CoversEveryMonthNotYetRemoved() {
+        // Arrange
+        YearMonth oldestKept = YearMonth.now(ZoneOffset.UTC).minusMonths(6);
+
+        // Act
+        OffsetDateTime horizon = NotificationPartitionMaintainer.inboxHorizon(6);
+
+        // Assert: the month being retired stays readable until its partition is gone
+        assertThat(horizon).isEqualTo(oldestKept.minusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.welog.notification;
+
+import com.example.welog.dto.NotificationViewDto;
+import com.example.welog.event.NotificationsCreatedEvent;
+import com.example.welog.repository.NotificationRepository;
+import com.example.welog.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationStreamHubTest {
+    private static final Long USER_ID = 1L;
+
+    private NotificationRepository notificationRepository;
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<String> sent = new ArrayList<>();
+    private NotificationStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        // Sends only happen when the test runs the queued tasks, like a slow client would see them
+        hub = new NotificationStreamHub(notificationRepository, new NotificationViewAssembler(mock(UserRepository.class)), 2, Duration.ofMinutes(1), 6, tasks::add) {
+            @Override
+            void send(SseEmitter emitter, StreamEvent event) {
+                sent.add(event.name == null ? "heartbeat" : event.name + ":" + event.id);
+            }
+        };
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ReplaysMissedThenStreamsNew() {
+        // Arrange
+        when(notificationRepository.findLatestIdByRecipientId(eq(USER_ID), any())).thenReturn(Optional.of(5L));
+        when(notificationRepository.findViewsAfterId(eq(USER_ID), eq(3L), any(), eq(Limit.of(3)))).thenReturn(List.of(view(4), view(5)));
+        when(notificationRepository.findViewsAfterId(eq(USER_ID), eq(5L), any(), eq(Limit.of(2)))).thenReturn(List.of(view(6)));
+
+        // Act
+        hub.subscribe(USER_ID, 3L);
+        runTasks();
+        hub.onNotificationsCreated(new NotificationsCreatedEvent(Set.of(USER_ID, 2L)));
+        runTasks();
+
+        // Assert
+        assertThat(sent).containsExactly("notification:4", "notification:5", "notification:6");
+    }
+
+    @Test
+    void onNotificationsCreated_LikeFoldedIntoSentGroup_ReachesSubscriber() {
+        // Arrange: the first like of the post created group 5, which the subscriber already has
+        when(notificationRepository.findLatestIdByRecipientId(eq(USER_ID), any())).thenReturn(Optional.of(5L));
+        when(notificationRepository.findViewsAfterId(eq(USER_ID), eq(5L), any(), eq(Limit.of(2)))).thenReturn(List.of());
+        when(notificationRepository.findViewsByRecipientIdAndIdIn(eq(USER_ID), eq(List.of(5L)), any())).thenReturn(List.of(view(5)));
+        hub.subscribe(USER_ID, null);
+
+        // Act: a second like of the same post updates group 5 in place
+        hub.onNotificationsCreated(new NotificationsCreatedEvent(Set.of(USER_ID), Map.of(USER_ID, Set.of(5L))));
+        runTasks();
+
+        // Assert
+        assertThat(sent).containsExactly("notification:5");
+    }
+
+    @Test
+    void subscribe_TooFarBehind_SendsReset() {
+        // Arrange
+        when(notificationRepository.findLatestIdByRecipientId(eq(USER_ID), any())).thenReturn(Optional.of(5L));
+        when(notificationRepository.findViewsAfterId(eq(USER_ID), eq(0L), any(), eq(Limit.of(3)))).thenReturn(List.of(view(1), view(2), view(3)));
+
+        // Act
+        hub.subscribe(USER_ID, 0L);
+        runTasks();
+
+        // Assert
+        assertThat(sent).containsExactly("reset:5");
+    }
+
+    @Test
+    void onNotificationsCreated_SlowClient_IsDisconnectedWhenBufferOverflows() {
+        // Arrange
+        when(notificationRepository.findLatestIdByRecipientId(eq(USER_ID), any())).thenReturn(Optional.empty());
+        when(notificationRepository.findViewsAfterId(eq(USER_ID), eq(0L), any(), eq(Limit.of(2)))).thenReturn(List.of(view(1), view(2)));
+        when(notificationRepository.findViewsAfterId(eq(USER_ID), eq(2L), any(), eq(Limit.of(2)))).thenReturn(List.of(view(3)));
+        hub.subscribe(USER_ID, null);
+
+        // Act: the load runs, but the sender never gets to drain the buffer
+        hub.onNotificationsCreated(new NotificationsCreatedEvent(Set.of(USER_ID)));
+        tasks.remove(0).run();
+
+        // Assert
+        assertThat(hub.connectionCount()).isZero();
+        runTasks();
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void heartbeat_IdleConnection_GetsComment() {
+        // Arrange
+        when(notificationRepository.findLatestIdByRecipientId(eq(USER_ID), any())).thenReturn(Optional.of(5L));
+        hub.subscribe(USER_ID, null);
+
+        // Act
+        hub.heartbeat();
+        hub.heartbeat();
+        runTasks();
+
+        // Assert
+        assertThat(hub.connectionCount()).isEqualTo(1);
+        assertThat(sent).containsExactly("heartbeat");
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static NotificationViewDto view(long id) {
+        return new NotificationViewDto(id, "LIKE", "Liked", false, OffsetDateTime.now(), 1, null, null, null, null, 2L, "Sender", null);
+    }
+}
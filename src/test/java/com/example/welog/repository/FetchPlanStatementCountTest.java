@@ -0,0 +1,201 @@
+package com.example.welog.repository;
+
+import com.example.welog.dto.CommentResponseDto;
+import com.example.welog.dto.CommentThreadDto;
+import com.example.welog.model.Comment;
+import com.example.welog.model.ERole;
+import com.example.welog.model.Post;
+import com.example.welog.model.Role;
+import com.example.welog.model.Tag;
+import com.example.welog.model.User;
+import com.example.welog.service.CommentService;
+import com.example.welog.utils.ResponseDtoMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every read path that ends in ResponseDtoMapper must run a fixed number of statements,
+ * no matter how many posts, comments, replies or users are on the page.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanStatementCountTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private Role role;
+    private List<Tag> tags;
+    private int userSequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        role = entityManager.persist(new Role(ERole.ROLE_USER));
+        tags = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Tag tag = new Tag();
+            tag.setName("tag-" + i);
+            tags.add(entityManager.persist(tag));
+        }
+    }
+
+    @Test
+    void getAllPosts_StatementCountIndependentOfPageSize() {
+        seedPosts(20, 2);
+
+        long smallPage = countStatements(() -> postRepository.findAll(PageRequest.of(0, 3, Sort.by("id")))
+                .forEach(ResponseDtoMapper::mapToPostResponseDto));
+        long largePage = countStatements(() -> postRepository.findAll(PageRequest.of(0, 20, Sort.by("id")))
+                .forEach(ResponseDtoMapper::mapToPostResponseDto));
+
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void scrollPosts_StatementCountIndependentOfPageSize() {
+        seedPosts(20, 2);
+
+        long smallPage = countStatements(() -> postRepository.findKeysetFirstPage(Limit.of(3))
+                .forEach(ResponseDtoMapper::mapToPostResponseDto));
+        long largePage = countStatements(() -> postRepository.findKeysetFirstPage(Limit.of(20))
+                .forEach(ResponseDtoMapper::mapToPostResponseDto));
+
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void getPost_StatementCountIndependentOfCommentCount() {
+        Post quietPost = seedPosts(1, 1).get(0);
+        Post busyPost = seedPosts(1, 25).get(0);
+
+        long quiet = countStatements(() -> ResponseDtoMapper.mapToPostResponseDto(postRepository.findById(quietPost.getId()).orElseThrow()));
+        long busy = countStatements(() -> ResponseDtoMapper.mapToPostResponseDto(postRepository.findById(busyPost.getId()).orElseThrow()));
+
+        assertThat(busy).isEqualTo(quiet);
+    }
+
+    @Test
+    void getCommentsByPostId_StatementCountIndependentOfCommentCount() {
+        Post quietPost = seedPosts(1, 1).get(0);
+        Post busyPost = seedPosts(1, 25).get(0);
+
+        long quiet = countStatements(() -> commentRepository.findByPostId(quietPost.getId())
+                .forEach(ResponseDtoMapper::mapToCommentResponseDto));
+        long busy = countStatements(() -> commentRepository.findByPostId(busyPost.getId())
+                .forEach(ResponseDtoMapper::mapToCommentResponseDto));
+
+        assertThat(busy).isEqualTo(quiet);
+    }
+
+    @Test
+    void getCommentThreadsByPostId_OneStatementWhateverTheCommentCount() {
+        Post busyPost = seedPosts(1, 25).get(0);
+
+        List<CommentResponseDto> threads = new ArrayList<>();
+        long statements = countStatements(() -> threads.addAll(
+                ResponseDtoMapper.mapToCommentThreads(commentRepository.findThreadByPostId(busyPost.getId()), 3)));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(threads).hasSize(25);
+        assertThat(threads).allSatisfy(thread -> assertThat(thread.getReplies()).hasSize(1));
+        assertThat(threads.get(0).getUser().getRoles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void scrollCommentThreadsByPostId_StatementCountIndependentOfPageSize() {
+        Post busyPost = seedPosts(1, 25).get(0);
+        CommentService commentService = new CommentService(commentRepository, postRepository, userRepository, null, null);
+
+        List<CommentThreadDto> threads = new ArrayList<>();
+        long smallPage = countStatements(() -> commentService.scrollCommentThreadsByPostId(busyPost.getId(), null, 3, 3));
+        long largePage = countStatements(() -> threads.addAll(commentService.scrollCommentThreadsByPostId(busyPost.getId(), null, 20, 3).getItems()));
+
+        assertThat(largePage).isEqualTo(smallPage);
+        assertThat(threads).hasSize(20);
+        assertThat(threads).allSatisfy(thread -> {
+            assertThat(thread.getReplies()).extracting(CommentResponseDto::getContent).containsExactly(thread.getContent().replace("Root", "Reply"));
+            assertThat(thread.isHasMoreReplies()).isFalse();
+        });
+    }
+
+    @Test
+    void getAllUsers_StatementCountIndependentOfPageSize() {
+        for (int i = 0; i < 20; i++) {
+            newUser();
+        }
+        entityManager.flush();
+
+        long smallPage = countStatements(() -> userRepository.findAll(PageRequest.of(0, 3, Sort.by("id")))
+                .forEach(ResponseDtoMapper::mapToUserResponseDto));
+        long largePage = countStatements(() -> userRepository.findAll(PageRequest.of(0, 20, Sort.by("id")))
+                .forEach(ResponseDtoMapper::mapToUserResponseDto));
+
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    // Each post has its own author, every tag, and rootComments root comments by distinct users, each with one reply
+    private List<Post> seedPosts(int postCount, int rootComments) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < postCount; i++) {
+            Post post = new Post("Post " + userSequence, "Content", null, newUser());
+            post.setTags(new HashSet<>(tags));
+            entityManager.persist(post);
+
+            for (int j = 0; j < rootComments; j++) {
+                Comment root = entityManager.persist(new Comment("Root " + j, post, newUser(), null, 1));
+                entityManager.persist(new Comment("Reply " + j, post, newUser(), root, 2));
+            }
+            posts.add(post);
+        }
+        entityManager.flush();
+        return posts;
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setName("User " + userSequence);
+        user.setEmail("user" + userSequence++ + "@example.com");
+        user.setPassword("password");
+        user.setRoles(Set.of(role));
+        return entityManager.persist(user);
+    }
+
+    private long countStatements(Runnable readPath) {
+        entityManager.clear();
+        statistics.clear();
+
+        readPath.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.welog.repository;
+
+import com.example.welog.model.Post;
+import com.example.welog.model.User;
+import com.example.welog.utils.CursorUtils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// PostgreSQL mode for the ON CONFLICT insert used to create the likes
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:post-like-repository;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostLikeRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    private Post post;
+    private final List<User> likers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User author = entityManager.persist(newUser("Author"));
+        post = entityManager.persist(new Post("Liked post", "Content", null, author));
+        Post other = entityManager.persist(new Post("Other post", "Content", null, author));
+        for (int i = 0; i < 5; i++) {
+            likers.add(entityManager.persist(newUser("Liker " + i)));
+        }
+        entityManager.flush();
+
+        // Same transaction, so every like gets the same created_at: the user id has to break the tie
+        likers.forEach(liker -> postLikeRepository.insertIfAbsent(liker.getId(), post.getId()));
+        postLikeRepository.insertIfAbsent(likers.get(0).getId(), other.getId());
+    }
+
+    @Test
+    void findLikersPageAfter_PagesThroughThePostsLikersWithoutGapsOrDuplicates() {
+        // Arrange
+        List<Long> seen = new ArrayList<>();
+
+        // Act
+        List<PostLikeRepository.LikerRow> page = postLikeRepository.findLikersFirstPage(post.getId(), Limit.of(2));
+        while (!page.isEmpty()) {
+            page.forEach(row -> seen.add(row.getUserId()));
+            PostLikeRepository.LikerRow last = page.get(page.size() - 1);
+            CursorUtils.KeysetCursor cursor = CursorUtils.decodeKeyset(CursorUtils.encodeKeyset(last.getLikedAt(), last.getUserId()));
+            page = postLikeRepository.findLikersPageAfter(post.getId(), cursor.getCreatedAt(), cursor.getId(), Limit.of(2));
+        }
+
+        // Assert
+        assertThat(seen).containsExactlyElementsOf(likers.stream().map(User::getId).sorted((a, b) -> Long.compare(b, a)).toList());
+    }
+
+    @Test
+    void findLikersFirstPage_ReturnsSummaryFieldsOnly() {
+        // Act
+        List<PostLikeRepository.LikerRow> rows = postLikeRepository.findLikersFirstPage(post.getId(), Limit.of(1));
+
+        // Assert
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getName()).isEqualTo("Liker 4");
+        assertThat(rows.get(0).getLikedAt()).isNotNull();
+    }
+
+    @Test
+    void insertIfAbsent_SoftDeletedLike_IsRevivedOnceAndOnlyLiveLikesAreDeleted() {
+        // Arrange
+        Long likerId = likers.get(0).getId();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE posts_likes SET deleted_at = CURRENT_TIMESTAMP WHERE user_id = ?1 AND post_id = ?2")
+                .setParameter(1, likerId)
+                .setParameter(2, post.getId())
+                .executeUpdate();
+
+        // Act
+        int deletedWhileSoftDeleted = postLikeRepository.deleteIfPresent(likerId, post.getId());
+        int revived = postLikeRepository.reviveIfDeleted(likerId, post.getId()) + postLikeRepository.insertIfAbsent(likerId, post.getId());
+        int likedWhileLive = postLikeRepository.reviveIfDeleted(likerId, post.getId()) + postLikeRepository.insertIfAbsent(likerId, post.getId());
+
+        // Assert
+        assertThat(deletedWhileSoftDeleted).isZero();
+        assertThat(revived).isEqualTo(1);
+        assertThat(likedWhileLive).isZero();
+        assertThat(postLikeRepository.findCreatedAt(likerId, post.getId())).isPresent();
+        assertThat(postLikeRepository.deleteIfPresent(likerId, post.getId())).isEqualTo(1);
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.replace(' ', '.').toLowerCase() + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.welog.repository;
+
+import com.example.welog.model.Post;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Offset vs keyset latency at page 1 and page 5,000 (page size 10).
+ * Opt-in because seeding takes a while: BENCHMARK=true ./gradlew test --tests '*PostPaginationBenchmarkTest'
+ */
+@DataJpaTest
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+class PostPaginationBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(PostPaginationBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 5_000;
+    private static final int POST_COUNT = PAGE_SIZE * (DEEP_PAGE + 1);
+    private static final int RUNS = 25;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (name, email, password) VALUES ('Bench', 'bench@example.com', 'x')");
+        Long authorId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench@example.com'", Long.class);
+
+        Instant start = Instant.parse("2020-01-01T00:00:00Z");
+        List<Object[]> rows = new ArrayList<>(POST_COUNT);
+        for (int i = 0; i < POST_COUNT; i++) {
+            rows.add(new Object[]{"Post " + i, "post-" + i, "Content", authorId, Timestamp.from(start.plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO posts (title, slug, content, author_id, created_at) VALUES (?, ?, ?, ?, ?)", rows);
+
+        // Same shape as idx_posts_created_at_id in V6 (H2 has no partial indexes)
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts (created_at DESC, id DESC)");
+    }
+
+    @Test
+    void keysetLatency_IsFlatAcrossPageDepth() {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+        long offsetFirst = medianNanos(() -> postRepository.findAll(PageRequest.of(0, PAGE_SIZE, newestFirst)).getContent());
+        long offsetDeep = medianNanos(() -> postRepository.findAll(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, newestFirst)).getContent());
+
+        // Cursor of the last row of page DEEP_PAGE - 1, i.e. what a client holds when asking for page DEEP_PAGE
+        Post boundary = postRepository.findAll(PageRequest.of(DEEP_PAGE - 2, PAGE_SIZE, newestFirst)).getContent().get(PAGE_SIZE - 1);
+        long keysetFirst = medianNanos(() -> postRepository.findKeysetFirstPage(Limit.of(PAGE_SIZE + 1)));
+        long keysetDeep = medianNanos(() -> postRepository.findKeysetPageAfter(boundary.getCreatedAt(), boundary.getId(), Limit.of(PAGE_SIZE + 1)));
+
+        logger.info("offset  page 1: {} ms | page {}: {} ms", millis(offsetFirst), DEEP_PAGE, millis(offsetDeep));
+        logger.info("keyset  page 1: {} ms | page {}: {} ms", millis(keysetFirst), DEEP_PAGE, millis(keysetDeep));
+
+        assertThat(postRepository.findKeysetPageAfter(boundary.getCreatedAt(), boundary.getId(), Limit.of(PAGE_SIZE)))
+                .extracting(Post::getId)
+                .containsExactlyElementsOf(postRepository.findAll(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, newestFirst)).map(Post::getId).getContent());
+        assertThat(keysetDeep).isLessThan(Math.max(keysetFirst * 5, 1_000_000L));
+    }
+
+    private long medianNanos(Supplier<List<Post>> query) {
+        for (int i = 0; i < 5; i++) {
+            query.get();
+        }
+
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%8.3f", nanos / 1e6);
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.welog.repository;
 
+import com.example.welog.dto.PostCardDto;
+import com.example.welog.model.Comment;
 import com.example.welog.model.Post;
+import com.example.welog.model.Tag;
 import com.example.welog.model.User;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -9,9 +12,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -87,4 +94,198 @@ class PostRepositoryTest {
         Optional<Post> deletedPost = postRepository.findById(postId);
         assertThat(deletedPost).isNotPresent();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findIdBySlug_WhenSoftDeleted_SlugStaysReserved() {
+        // Arrange
+        Long postId = post.getId();
+        assertThat(postRepository.findIdBySlug("test-title")).contains(postId);
+
+        // Act
+        postRepository.softDelete(postId);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertThat(postRepository.findIdBySlug("test-title")).isNotPresent();
+        assertThat(postRepository.existsBySlugIncludingDeleted("test-title")).isTrue();
+        assertThat(postRepository.existsBySlugIncludingDeleted("other-title")).isFalse();
+    }
+
+    @Test
+    void findPostCards_ReturnsCardFieldsAndCounts() {
+        // Arrange
+        Tag tag = new Tag();
+        tag.setName("java");
+        entityManager.persist(tag);
+        post.setTags(Set.of(tag));
+
+        Comment comment = new Comment("Nice post", post, post.getAuthor(), null, 1);
+        entityManager.persist(comment);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<PostCardDto> cards = postRepository.findPostCards(PageRequest.of(0, 20));
+        List<PostRepository.PostTagName> tagNames = postRepository.findTagNamesByPostIdIn(List.of(post.getId()));
+
+        // Assert
+        assertThat(cards).hasSize(1);
+        assertThat(cards.get(0).getSlug()).isEqualTo("test-title");
+        assertThat(cards.get(0).getAuthor().getName()).isEqualTo("Test User");
+        assertThat(cards.get(0).getCommentCount()).isEqualTo(1);
+        assertThat(cards.get(0).getLikeCount()).isZero();
+        assertThat(tagNames).extracting(PostRepository.PostTagName::getName).containsExactly("java");
+    }
+
+    @Test
+    void findVersionById_CountsTagsAndComments() {
+        // Arrange
+        Tag tag = new Tag();
+        tag.setName("java");
+        entityManager.persist(tag);
+        post.setTags(Set.of(tag));
+        entityManager.persist(new Comment("First", post, post.getAuthor(), null, 1));
+        entityManager.persist(new Comment("Second", post, post.getAuthor(), null, 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Optional<PostRepository.PostVersion> version = postRepository.findVersionById(post.getId());
+
+        // Assert
+        assertThat(version).isPresent();
+        assertThat(version.get().getTagCount()).isEqualTo(1);
+        assertThat(version.get().getCommentCount()).isEqualTo(2);
+        assertThat(version.get().getUpdatedAt()).isNotNull();
+        assertThat(version.get().getCommentsUpdatedAt()).isNotNull();
+        assertThat(version.get().getCommentsCreatedAt()).isNotNull();
+        assertThat(version.get().getTagsUpdatedAt()).isNotNull();
+        assertThat(postRepository.findVersionById(999L)).isNotPresent();
+    }
+
+    @Test
+    void findIdsUpdatedSince_NewPostWithoutUpdatedAt_IsIncluded() {
+        // Arrange: as inserted on PostgreSQL, where updated_at stays NULL until the first update
+        OffsetDateTime since = OffsetDateTime.now().minusMinutes(1);
+        entityManager.getEntityManager().createNativeQuery("UPDATE posts SET updated_at = NULL, created_at = CURRENT_TIMESTAMP").executeUpdate();
+
+        // Act
+        List<Long> ids = postRepository.findIdsUpdatedSince(since);
+
+        // Assert
+        assertThat(ids).containsExactly(post.getId());
+    }
+
+    @Test
+    void findIdsShowingUser_ReturnsAuthoredAndCommentedPostsOnce() {
+        // Arrange
+        User commenter = new User();
+        commenter.setName("Commenter");
+        commenter.setEmail("commenter@example.com");
+        commenter.setPassword("password");
+        entityManager.persist(commenter);
+        Post commented = entityManager.persist(new Post("Other Title", "Other Content", null, commenter));
+        entityManager.persist(new Post("Unrelated", "Content", null, commenter));
+        entityManager.persist(new Comment("First", post, commenter, null, 1));
+        entityManager.persist(new Comment("Second", post, commenter, null, 1));
+        entityManager.persist(new Comment("Reply", commented, post.getAuthor(), null, 1));
+        entityManager.flush();
+
+        // Act
+        List<Long> ids = postRepository.findIdsShowingUser(post.getAuthor().getId());
+
+        // Assert
+        assertThat(ids).containsExactlyInAnyOrder(post.getId(), commented.getId());
+    }
+
+    @Test
+    void addLikeCounts_AppliesDeltaToStoredCount() {
+        // Arrange
+        entityManager.flush();
+
+        // Act
+        int updated = postRepository.addLikeCounts(3, List.of(post.getId(), 999L));
+        postRepository.addLikeCounts(-1, List.of(post.getId()));
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        assertThat(postRepository.findPostCards(PageRequest.of(0, 20)).get(0).getLikeCount()).isEqualTo(2);
+        assertThat(postRepository.findVersionById(post.getId()).orElseThrow().getLikeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void searchSubstring_MatchesTitleExcerptAndContent_TitleHitsFirst() {
+        // Arrange
+        Post contentHit = new Post("Another post", "All about Spring transactions", null, post.getAuthor());
+        Post titleHit = new Post("Spring tips", "Short", null, post.getAuthor());
+        entityManager.persist(contentHit);
+        entityManager.persist(titleHit);
+        entityManager.flush();
+
+        // Act
+        List<Post> results = postRepository.searchSubstring("spring", PageRequest.of(0, 10)).getContent();
+
+        // Assert
+        assertThat(results).extracting(Post::getTitle).containsExactly("Spring tips", "Another post");
+    }
+
+    @Test
+    void findKeysetPageAfter_ReturnsRowsAfterCursorWithoutGapsOrDuplicates() {
+        // Arrange
+        OffsetDateTime createdAt = OffsetDateTime.now().withNano(0);
+        for (int i = 0; i < 4; i++) {
+            Post other = new Post("Keyset " + i, "Content", null, post.getAuthor());
+            entityManager.persist(other);
+        }
+        entityManager.flush();
+        entityManager.getEntityManager().createQuery("UPDATE Post p SET p.createdAt = :createdAt")
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+        entityManager.clear();
+
+        // Act
+        List<Post> firstPage = postRepository.findKeysetFirstPage(Limit.of(3));
+        Post last = firstPage.get(firstPage.size() - 1);
+        List<Post> secondPage = postRepository.findKeysetPageAfter(last.getCreatedAt(), last.getId(), Limit.of(3));
+
+        // Assert
+        assertThat(firstPage).hasSize(3);
+        assertThat(secondPage).hasSize(2);
+        assertThat(secondPage).extracting(Post::getId)
+                .doesNotContainAnyElementsOf(firstPage.stream().map(Post::getId).toList())
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    @Test
+    void findCardsByTagPageAfter_PagesThroughOnlyTheTagsPosts() {
+        // Arrange
+        Tag java = new Tag();
+        java.setName("java");
+        entityManager.persist(java);
+        Tag rust = new Tag();
+        rust.setName("rust");
+        entityManager.persist(rust);
+        post.setTags(Set.of(rust));
+        for (int i = 0; i < 5; i++) {
+            Post tagged = new Post("Tagged " + i, "Content", null, post.getAuthor());
+            tagged.setTags(Set.of(java));
+            entityManager.persist(tagged);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<PostCardDto> firstPage = postRepository.findCardsByTagFirstPage(java.getId(), Limit.of(3));
+        PostCardDto last = firstPage.get(firstPage.size() - 1);
+        List<PostCardDto> secondPage = postRepository.findCardsByTagPageAfter(java.getId(), last.getCreatedAt(), last.getId(), Limit.of(3));
+
+        // Assert
+        assertThat(firstPage).hasSize(3);
+        assertThat(secondPage).hasSize(2);
+        assertThat(secondPage).extracting(PostCardDto::getId)
+                .doesNotContainAnyElementsOf(firstPage.stream().map(PostCardDto::getId).toList())
+                .doesNotContain(post.getId());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.welog.repository;
+
+import com.example.welog.model.Post;
+import com.example.welog.model.Tag;
+import com.example.welog.model.User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class TagRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private User author;
+    private Tag java;
+    private Tag spring;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setName("Author");
+        author.setEmail("author@example.com");
+        author.setPassword("password");
+        author = entityManager.persist(author);
+
+        java = newTag("java");
+        spring = newTag("spring");
+    }
+
+    @Test
+    void adjustPostCounts_AddsDeltaToEachTag() {
+        tagRepository.adjustPostCounts(List.of(java.getId(), spring.getId()), 2);
+        tagRepository.adjustPostCounts(List.of(spring.getId()), -1);
+        entityManager.clear();
+
+        assertThat(tagRepository.findById(java.getId()).orElseThrow().getPostCount()).isEqualTo(2);
+        assertThat(tagRepository.findById(spring.getId()).orElseThrow().getPostCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcilePostCounts_FixesDriftedTagsAndSkipsDeletedPosts() {
+        newPost("One", Set.of(java, spring));
+        newPost("Two", Set.of(java));
+        Post deleted = newPost("Three", Set.of(java));
+        entityManager.flush();
+        postRepository.softDelete(deleted.getId());
+        tagRepository.adjustPostCounts(List.of(java.getId()), 2); // java is right (2), spring has drifted (0)
+
+        int drifted = tagRepository.reconcilePostCounts();
+        entityManager.clear();
+
+        assertThat(drifted).isEqualTo(1);
+        assertThat(tagRepository.findPopularTags(Limit.of(10)))
+                .extracting(Tag::getName, Tag::getPostCount)
+                .containsExactly(tuple("java", 2L), tuple("spring", 1L));
+    }
+
+    private Tag newTag(String name) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        return entityManager.persist(tag);
+    }
+
+    private Post newPost(String title, Set<Tag> tags) {
+        Post post = new Post(title, "Content", null, author);
+        post.setTags(new HashSet<>(tags));
+        return entityManager.persist(post);
+    }
+}
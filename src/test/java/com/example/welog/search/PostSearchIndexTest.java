@@ -0,0 +1,136 @@
+package com.example.welog.search;
+
+import com.example.welog.dto.PostSearchHitDto;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.utils.CursorUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PostSearchIndexTest {
+    @TempDir
+    private Path directory;
+
+    private final List<PostSearchIndex> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(PostSearchIndex::close);
+    }
+
+    @Test
+    void search_RanksTitleMatchesAboveBodyMatches() {
+        PostSearchIndex index = open(100, 8);
+        index.index(post(1L, "Cooking pasta at home", "Notes about sauces and spring onions"));
+        index.index(post(2L, "Spring Boot caching", "Caffeine in front of the repository"));
+        index.index(post(3L, "Weekly notes", "Nothing about frameworks"));
+
+        List<PostSearchHitDto> hits = index.search("spring", 10, null);
+
+        assertThat(hits).extracting(PostSearchHitDto::getId).containsExactly(2L, 1L);
+        assertThat(hits.get(0).getSlug()).isEqualTo("post-2");
+        assertThat(hits.get(0).getTitle()).isEqualTo("Spring Boot caching");
+    }
+
+    @Test
+    void index_SamePostTwice_OnlyLatestVersionIsSearchable() {
+        PostSearchIndex index = open(2, 8);
+        index.index(post(1L, "Kotlin coroutines", "Structured concurrency"));
+        index.index(post(2L, "Filler", "Filler"));  // flushes the first version to disk
+        index.index(post(1L, "Java virtual threads", "Structured concurrency"));
+
+        assertThat(index.search("kotlin", 10, null)).isEmpty();
+        assertThat(index.search("virtual", 10, null)).extracting(PostSearchHitDto::getId).containsExactly(1L);
+        assertThat(index.liveDocs()).isEqualTo(2);
+    }
+
+    @Test
+    void delete_RemovesPostFromBufferAndSegments() {
+        PostSearchIndex index = open(2, 8);
+        index.index(post(1L, "Garbage collection", "G1 and ZGC"));
+        index.index(post(2L, "Garbage in, garbage out", "Validation"));
+        index.index(post(3L, "Garbage trucks", "City logistics"));
+
+        index.delete(1L);
+        index.delete(3L);
+
+        assertThat(index.search("garbage", 10, null)).extracting(PostSearchHitDto::getId).containsExactly(2L);
+    }
+
+    @Test
+    void open_ReplaysSegmentsAndTombstonesFromDisk() {
+        PostSearchIndex index = open(2, 8);
+        index.index(post(1L, "Indexing basics", "Postings lists"));
+        index.index(post(2L, "Indexing at scale", "Segments and merges"));
+        index.index(post(1L, "Ranking basics", "BM25"));
+        index.delete(2L);
+        index.close();
+        opened.remove(index);
+
+        PostSearchIndex reopened = open(2, 8);
+
+        assertThat(reopened.liveDocs()).isEqualTo(1);
+        assertThat(reopened.search("indexing", 10, null)).isEmpty();
+        assertThat(reopened.search("ranking", 10, null)).extracting(PostSearchHitDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    void flush_BeyondMaxSegments_MergesIntoOneSegment() throws Exception {
+        PostSearchIndex index = open(1, 3);
+        for (long id = 1; id <= 6; id++) {
+            index.index(post(id, "Merge candidate " + id, "Shared body text"));
+        }
+        index.delete(4L);
+
+        assertThat(index.segmentCount()).isLessThanOrEqualTo(3);
+        assertThat(index.search("shared", 10, null)).extracting(PostSearchHitDto::getId).containsExactlyInAnyOrder(1L, 2L, 3L, 5L, 6L);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(index.segmentCount());
+        }
+    }
+
+    @Test
+    void search_WithSearchAfter_ReturnsNextHitsWithoutOverlap() {
+        PostSearchIndex index = open(100, 8);
+        for (long id = 1; id <= 5; id++) {
+            index.index(post(id, "Paging post", "Identical body"));
+        }
+
+        List<PostSearchHitDto> first = index.search("paging", 2, null);
+        PostSearchHitDto last = first.get(first.size() - 1);
+        List<PostSearchHitDto> second = index.search("paging", 10, new CursorUtils.ScoreCursor(last.getScore(), last.getId()));
+
+        assertThat(first).extracting(PostSearchHitDto::getId).containsExactly(5L, 4L);
+        assertThat(second).extracting(PostSearchHitDto::getId).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void search_OnlyStopWords_ReturnsNothing() {
+        PostSearchIndex index = open(100, 8);
+        index.index(post(1L, "The and of", "It is what it is"));
+
+        assertThat(index.search("the and", 10, null)).isEmpty();
+    }
+
+    private PostSearchIndex open(int flushDocs, int maxSegments) {
+        PostSearchIndex index = new PostSearchIndex(mock(PostRepository.class), true, directory.toString(), flushDocs, maxSegments, DataSize.ofMegabytes(64));
+        index.open();
+        opened.add(index);
+        return index;
+    }
+
+    private static PostDocument post(Long id, String title, String content) {
+        return new PostDocument(id, "post-" + id, title, null, content, List.of());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.welog.search;
+
+import com.example.welog.dto.SuggestionDto;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostLikeChangedEvent;
+import com.example.welog.event.PostTagsChangedEvent;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.repository.TagRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTest {
+    private PostRepository postRepository;
+    private TagRepository tagRepository;
+    private List<PostRepository.PostSuggestionRow> posts;
+    private List<TagRepository.TagPostCount> tags;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        tagRepository = mock(TagRepository.class);
+        posts = new ArrayList<>();
+        tags = new ArrayList<>();
+        when(postRepository.findSuggestionRows()).thenReturn(posts);
+        when(tagRepository.findTagPostCounts()).thenReturn(tags);
+    }
+
+    @Test
+    void suggest_ReturnsPrefixMatchesHeaviestFirst() {
+        posts.add(postRow(1L, "Spring Boot caching", 3));
+        posts.add(postRow(2L, "Spring   Security basics", 10));
+        posts.add(postRow(3L, "Summer notes", 50));
+        tags.add(tagRow(1L, "spring", 7));
+        SuggestionIndex index = load(100);
+
+        List<SuggestionDto> suggestions = index.suggest("  SPRING ", 10);
+
+        assertThat(suggestions).extracting(SuggestionDto::getText)
+                .containsExactly("Spring   Security basics", "spring", "Spring Boot caching");
+        assertThat(suggestions.get(0).getSlug()).isEqualTo("post-2");
+        assertThat(suggestions.get(1).getType()).isEqualTo(SuggestionIndex.TYPE_TAG);
+        assertThat(index.suggest("spring s", 10)).extracting(SuggestionDto::getText).containsExactly("Spring   Security basics");
+        assertThat(index.suggest("spx", 10)).isEmpty();
+        assertThat(index.suggest("s", 2)).hasSize(2);
+    }
+
+    @Test
+    void onPostChanged_UpdatesRenamesAndRemovesTitles() {
+        posts.add(postRow(1L, "Draft title", 0));
+        SuggestionIndex index = load(100);
+
+        when(postRepository.findSuggestionRowById(1L)).thenReturn(Optional.of(postRow(1L, "Final title", 0)));
+        index.onPostChanged(new PostChangedEvent(1L, PostChangedEvent.Type.UPDATED));
+        assertThat(index.suggest("draft", 10)).isEmpty();
+        assertThat(index.suggest("final", 10)).extracting(SuggestionDto::getText).containsExactly("Final title");
+
+        index.onPostChanged(new PostChangedEvent(1L, PostChangedEvent.Type.DELETED));
+        assertThat(index.suggest("final", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+        verify(tagRepository, times(1)).findTagPostCounts();
+        verify(tagRepository, never()).findTagPostCountsByIdIn(anyCollection());
+    }
+
+    @Test
+    void onPostTagsChanged_RecountsAndDropsOnlyChangedTags() {
+        tags.add(tagRow(1L, "java", 1));
+        tags.add(tagRow(2L, "javascript", 5));
+        tags.add(tagRow(3L, "jvm", 2));
+        SuggestionIndex index = load(100);
+
+        when(tagRepository.findTagPostCountsByIdIn(anyCollection())).thenReturn(List.of(tagRow(1L, "java", 9)));
+        index.onPostTagsChanged(new PostTagsChangedEvent(42L, List.of(1L), List.of(2L)));
+
+        assertThat(index.suggest("j", 10)).extracting(SuggestionDto::getText, SuggestionDto::getWeight)
+                .containsExactly(tuple("java", 9L), tuple("jvm", 2L));
+        verify(tagRepository, times(1)).findTagPostCounts();
+    }
+
+    @Test
+    void onPostLikeChanged_ReordersCompletions() {
+        posts.add(postRow(1L, "Rust ownership", 1));
+        posts.add(postRow(2L, "Rust lifetimes", 1));
+        SuggestionIndex index = load(100);
+
+        index.onPostLikeChanged(new PostLikeChangedEvent(7L, 2L, PostLikeChangedEvent.Type.LIKED));
+        index.onPostLikeChanged(new PostLikeChangedEvent(8L, 2L, PostLikeChangedEvent.Type.LIKED));
+        index.onPostLikeChanged(new PostLikeChangedEvent(9L, 1L, PostLikeChangedEvent.Type.UNLIKED));
+
+        assertThat(index.suggest("rust", 10)).extracting(SuggestionDto::getWeight).containsExactly(3L, 0L);
+    }
+
+    @Test
+    void put_BeyondMaxEntries_KeepsHeaviestEntries() {
+        for (long id = 1; id <= 5; id++) {
+            posts.add(postRow(id, "Post " + id, id));
+        }
+        SuggestionIndex index = load(3);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.suggest("post", 10)).extracting(SuggestionDto::getText).containsExactly("Post 5", "Post 4", "Post 3");
+    }
+
+    @Test
+    void onPostLikeChanged_DroppedPostHeavierThanLightest_ComesBack() {
+        for (long id = 1; id <= 3; id++) {
+            posts.add(postRow(id, "Post " + id, id));
+        }
+        SuggestionIndex index = load(2);
+
+        when(postRepository.findSuggestionRowById(1L)).thenReturn(Optional.of(postRow(1L, "Post 1", 2)));
+        index.onPostLikeChanged(new PostLikeChangedEvent(7L, 1L, PostLikeChangedEvent.Type.LIKED));
+        assertThat(index.suggest("post", 10)).extracting(SuggestionDto::getText).containsExactly("Post 3", "Post 2");
+
+        when(postRepository.findSuggestionRowById(1L)).thenReturn(Optional.of(postRow(1L, "Post 1", 4)));
+        index.onPostLikeChanged(new PostLikeChangedEvent(8L, 1L, PostLikeChangedEvent.Type.LIKED));
+        assertThat(index.suggest("post", 10)).extracting(SuggestionDto::getText).containsExactly("Post 1", "Post 3");
+    }
+
+    @Test
+    void trie_SharedPrefixes_SplitAndCollapseEdges() {
+        SuggestionTrie trie = new SuggestionTrie();
+        SuggestionTrie.Entry team = new SuggestionTrie.Entry("post", 1, "team", null, 1);
+        SuggestionTrie.Entry tea = new SuggestionTrie.Entry("post", 2, "tea", null, 2);
+        SuggestionTrie.Entry toast = new SuggestionTrie.Entry("post", 3, "toast", null, 3);
+        trie.insert("team", team);
+        trie.insert("tea", tea);
+        trie.insert("toast", toast);
+
+        assertThat(trie.top("te", 10)).containsExactly(tea, team);
+        assertThat(trie.remove("tea", tea)).isTrue();
+        assertThat(trie.remove("tea", tea)).isFalse();
+        assertThat(trie.top("tea", 10)).containsExactly(team);
+        assertThat(trie.top("t", 10)).containsExactly(toast, team);
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    private SuggestionIndex load(int maxEntries) {
+        SuggestionIndex index = new SuggestionIndex(postRepository, tagRepository, maxEntries);
+        index.load();
+        return index;
+    }
+
+    private static PostRepository.PostSuggestionRow postRow(Long id, String title, long likes) {
+        return new PostRepository.PostSuggestionRow() {
+            public Long getId() { return id; }
+            public String getSlug() { return "post-" + id; }
+            public String getTitle() { return title; }
+            public Long getLikeCount() { return likes; }
+        };
+    }
+
+    private static TagRepository.TagPostCount tagRow(Long id, String name, long postCount) {
+        return new TagRepository.TagPostCount() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+            public Long getPostCount() { return postCount; }
+        };
+    }
+}
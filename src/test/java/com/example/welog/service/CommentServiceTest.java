@@ -2,6 +2,8 @@ package com.example.welog.service;
 
 import com.example.welog.dto.CommentCreateDto;
 import com.example.welog.dto.CommentResponseDto;
+import com.example.welog.dto.CommentThreadDto;
+import com.example.welog.dto.CursorPageDto;
 import com.example.welog.exception.ResourceNotFoundException;
 import com.example.welog.model.Comment;
 import com.example.welog.model.Post;
@@ -10,6 +12,7 @@ import com.example.welog.repository.CommentRepository;
 import com.example.welog.repository.PostRepository;
 import com.example.welog.repository.UserRepository;
 import com.example.welog.service.impl.UserDetailsImpl;
+import com.example.welog.utils.CursorUtils;
 import com.example.welog.utils.ResponseDtoMapper;
 import jakarta.validation.constraints.Min;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +21,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -27,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +50,9 @@ class CommentServiceTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -90,6 +99,57 @@ class CommentServiceTest {
         assertThat(result.getFirst().getContent()).isEqualTo(comment.getContent());
     }
 
+    @Test
+    void getCommentThreadsByPostId_NestsRepliesInOrderUpToMaxLevel() {
+        Comment root = newComment(1L, null, 1);
+        Comment first = newComment(2L, root, 2);
+        Comment second = newComment(3L, root, 2);
+        Comment nested = newComment(4L, first, 3);
+        Comment tooDeep = newComment(5L, nested, 4);
+        Comment orphan = newComment(6L, newComment(99L, null, 1), 2); // parent deleted
+        when(commentRepository.findThreadByPostId(1L)).thenReturn(List.of(root, first, second, nested, tooDeep, orphan));
+
+        List<CommentResponseDto> result = commentService.getCommentThreadsByPostId(1L);
+
+        assertThat(result).extracting(CommentResponseDto::getId).containsExactly(1L);
+        assertThat(result.getFirst().getReplies()).extracting(CommentResponseDto::getId).containsExactly(2L, 3L);
+        CommentResponseDto firstReply = result.getFirst().getReplies().iterator().next();
+        assertThat(firstReply.getReplies()).extracting(CommentResponseDto::getId).containsExactly(4L);
+        assertThat(firstReply.getReplies().iterator().next().getReplies()).isEmpty();
+    }
+
+    @Test
+    void scrollCommentThreadsByPostId_MoreRepliesThanPreview_SetsRepliesCursor() {
+        // Arrange
+        Comment root = newComment(1L, null, 1);
+        List<Comment> replies = List.of(newComment(2L, root, 2), newComment(3L, root, 2), newComment(4L, root, 2));
+        when(commentRepository.findRootKeysetFirstPageByPostId(eq(1L), any(Limit.class))).thenReturn(List.of(root));
+        when(commentRepository.findFirstReplyIdsByParentIdIn(List.of(1L), 3)).thenReturn(List.of(2L, 3L, 4L));
+        when(commentRepository.findByIdInOrderByCreatedAt(List.of(2L, 3L, 4L))).thenReturn(replies);
+
+        // Act
+        CursorPageDto<CommentThreadDto> page = commentService.scrollCommentThreadsByPostId(1L, null, 10, 2);
+
+        // Assert
+        assertThat(page.getNextCursor()).isNull();
+        CommentThreadDto thread = page.getItems().getFirst();
+        assertThat(thread.getReplies()).extracting(CommentResponseDto::getId).containsExactly(2L, 3L);
+        assertThat(thread.isHasMoreReplies()).isTrue();
+        assertThat(CursorUtils.decodeKeyset(thread.getRepliesCursor()).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void scrollRepliesByCommentId_CommentNotFound_ThrowsException() {
+        // Arrange
+        when(commentRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> commentService.scrollRepliesByCommentId(1L, null, 10, 3))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Comment not found with id: 1");
+        verify(commentRepository, never()).findReplyKeysetFirstPageByParentId(anyLong(), any());
+    }
+
     @Test
     void createComment_ValidData_CreatesComment() {
         CommentCreateDto createDto = new CommentCreateDto();
@@ -126,4 +186,11 @@ class CommentServiceTest {
         assertThatThrownBy(() -> commentService.deleteComment(999L)).isInstanceOf(ResourceNotFoundException.class);
         verify(commentRepository, never()).softDelete(anyLong());
     }
-}
\ No newline at end of file
+
+    private Comment newComment(Long id, Comment parent, int level) {
+        Comment reply = new Comment("Comment " + id, post, user, parent, level);
+        reply.setId(id);
+        reply.setCreatedAt(OffsetDateTime.now().plusSeconds(id));
+        return reply;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.welog.service;
+
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.dto.NotificationViewDto;
+import com.example.welog.model.Notification;
+import com.example.welog.model.Post;
+import com.example.welog.model.User;
+import com.example.welog.notification.NotificationOutboxDispatcher;
+import com.example.welog.notification.NotificationStreamHub;
+import com.example.welog.notification.NotificationViewAssembler;
+import com.example.welog.repository.NotificationOutboxRepository;
+import com.example.welog.repository.NotificationRepository;
+import com.example.welog.service.impl.UserDetailsImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+// PostgreSQL mode for the outbox statements used to create the notifications; one notification per like
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notification-service;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.notifications.coalesce.window=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NotificationService.class, NotificationOutboxDispatcher.class, NotificationViewAssembler.class})
+class NotificationServiceTest {
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationOutboxDispatcher dispatcher;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private NotificationStreamHub notificationStreamHub;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = entityManager.persist(newUser("Author"));
+        User liker = entityManager.persist(newUser("Liker"));
+        Post post = entityManager.persist(new Post("Liked post", "Content", null, author));
+        entityManager.flush();
+        for (int i = 0; i < 3; i++) {
+            notificationOutboxRepository.enqueueLike(liker.getId(), post.getId());
+        }
+        dispatcher.dispatchBatch();
+        when(authService.getCurrentUser()).thenReturn(UserDetailsImpl.build(author));
+    }
+
+    @Test
+    void getUnreadCount_AfterDispatch_CountsNewNotifications() {
+        assertThat(notificationService.getUnreadCount().getUnreadCount()).isEqualTo(3);
+    }
+
+    @Test
+    void markNotificationsAsRead_OnlyCountsRowsThatWereUnread() {
+        // Arrange
+        List<Long> ids = notificationRepository.findAll().stream().map(Notification::getId).toList();
+
+        // Act
+        notificationService.markNotificationsAsRead(List.of(ids.get(0), 999L));
+        notificationService.markNotificationAsRead(ids.get(0));
+        notificationService.markNotificationsAsRead(List.of(ids.get(0), ids.get(1)));
+
+        // Assert
+        assertThat(notificationService.getUnreadCount().getUnreadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void markAllNotificationsAsRead_ResetsCounterWithOneUpdate() {
+        // Act
+        notificationService.markAllNotificationsAsRead(author.getId());
+        notificationService.markAllNotificationsAsRead(author.getId());
+
+        // Assert
+        assertThat(notificationService.getUnreadCount().getUnreadCount()).isZero();
+        entityManager.clear();
+        assertThat(notificationRepository.findAll()).allMatch(Notification::isRead);
+    }
+
+    @Test
+    void scrollNotificationsForUser_PagesNewestFirstWithSummariesOnly() {
+        // Act
+        CursorPageDto<NotificationViewDto> first = notificationService.scrollNotificationsForUser(author.getId(), null, 2);
+        CursorPageDto<NotificationViewDto> second = notificationService.scrollNotificationsForUser(author.getId(), first.getNextCursor(), 2);
+
+        // Assert
+        List<Long> ids = notificationRepository.findAll().stream().map(Notification::getId).sorted(Comparator.reverseOrder()).toList();
+        assertThat(first.getItems()).extracting(NotificationViewDto::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(second.getItems()).extracting(NotificationViewDto::getId).containsExactly(ids.get(2));
+        assertThat(second.getNextCursor()).isNull();
+        NotificationViewDto view = first.getItems().get(0);
+        assertThat(view.getPost().getTitle()).isEqualTo("Liked post");
+        assertThat(view.getSender().getName()).isEqualTo("Liker");
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.welog.service;
+
+import com.example.welog.cache.PostLikeCounter;
+import com.example.welog.cache.UserLikeBitmaps;
+import com.example.welog.dto.PostLikeStateDto;
+import com.example.welog.exception.ResourceNotFoundException;
+import com.example.welog.model.Post;
+import com.example.welog.model.User;
+import com.example.welog.repository.NotificationOutboxRepository;
+import com.example.welog.repository.PostLikeRepository;
+import com.example.welog.repository.PostRepository;
+import com.example.welog.repository.UserRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs PostLikeService against a real (H2, PostgreSQL mode) database with committed transactions,
+ * so concurrent requests really race on the posts_likes primary key.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:post-likes;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostLikeService.class, UserLikeBitmaps.class, PostLikeCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostLikeServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private PostLikeService postLikeService;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @MockitoBean
+    private AuthService authService;
+
+    private User liker;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        User author = userRepository.save(newUser("Author", "author@example.com"));
+        liker = userRepository.save(newUser("Liker", "liker@example.com"));
+        post = postRepository.save(new Post("Liked post", "Content", null, author));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationOutboxRepository.deleteAllInBatch();
+        postLikeRepository.deleteAllInBatch();
+        postRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void likeAndUnlike_ConcurrentDoubleClicks_ChangeStateExactlyOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 1; round <= ROUNDS; round++) {
+                // Act
+                List<PostLikeStateDto> likes = race(pool, postLikeService::likePost);
+
+                // Assert
+                assertThat(likes).filteredOn(PostLikeStateDto::isChanged).hasSize(1);
+                assertThat(likes).allMatch(PostLikeStateDto::isLiked);
+                assertThat(postLikeRepository.existsByUserIdAndPostId(liker.getId(), post.getId())).isTrue();
+                assertThat(notificationOutboxRepository.count()).isEqualTo(round);
+
+                // Act
+                List<PostLikeStateDto> unlikes = race(pool, postLikeService::unlikePost);
+
+                // Assert
+                assertThat(unlikes).filteredOn(PostLikeStateDto::isChanged).hasSize(1);
+                assertThat(unlikes).noneMatch(PostLikeStateDto::isLiked);
+                assertThat(postLikeRepository.count()).isZero();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void likePost_Repeated_IsNoOp() {
+        // Act
+        PostLikeStateDto first = postLikeService.likePost(liker.getId(), post.getId());
+        PostLikeStateDto second = postLikeService.likePost(liker.getId(), post.getId());
+
+        // Assert
+        assertThat(first.isChanged()).isTrue();
+        assertThat(second.isChanged()).isFalse();
+        assertThat(second.isLiked()).isTrue();
+        assertThat(notificationOutboxRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void likeAndUnlike_UnknownPostOrUser_ThrowsResourceNotFoundException() {
+        assertThrows(ResourceNotFoundException.class, () -> postLikeService.likePost(liker.getId(), 999L));
+        assertThrows(ResourceNotFoundException.class, () -> postLikeService.likePost(999L, post.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> postLikeService.unlikePost(liker.getId(), 999L));
+    }
+
+    // Releases THREADS identical requests at once and waits for all of them
+    private List<PostLikeStateDto> race(ExecutorService pool, BiFunction<Long, Long, PostLikeStateDto> action) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PostLikeStateDto>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Callable<PostLikeStateDto> request = () -> {
+                start.await();
+                return action.apply(liker.getId(), post.getId());
+            };
+            futures.add(pool.submit(request));
+        }
+        start.countDown();
+
+        List<PostLikeStateDto> results = new ArrayList<>();
+        for (Future<PostLikeStateDto> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static User newUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.welog.service;
+
+import com.example.welog.repository.PostRepository;
+import com.example.welog.search.PostSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @InjectMocks
+    private PostSearchService postSearchService;
+
+    @Test
+    void isFullTextAvailable_InspectionFailsOnce_DecidesOnNextCall() throws SQLException {
+        // Arrange
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        ResultSet columns = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(metaData.getColumns(null, null, "posts", "search_vector")).thenReturn(columns);
+        when(columns.next()).thenReturn(true);
+
+        // Act
+        boolean whileDown = postSearchService.isFullTextAvailable();
+        boolean onceUp = postSearchService.isFullTextAvailable();
+        boolean cached = postSearchService.isFullTextAvailable();
+
+        // Assert
+        assertThat(whileDown).isFalse();
+        assertThat(onceUp).isTrue();
+        assertThat(cached).isTrue();
+        verify(dataSource, times(2)).getConnection();
+    }
+}
@@ -1,27 +1,38 @@
 package com.example.welog.service;
 
+import com.example.welog.cache.PostDetailCache;
+import com.example.welog.cache.PostLikeCounter;
+import com.example.welog.cache.PostSlugIndex;
+import com.example.welog.dto.PostCardDto;
 import com.example.welog.dto.PostCreateDto;
 import com.example.welog.dto.PostPatchDto;
 import com.example.welog.dto.PostResponseDto;
+import com.example.welog.event.PostChangedEvent;
+import com.example.welog.event.PostTagsChangedEvent;
 import com.example.welog.exception.ResourceNotFoundException;
 import com.example.welog.model.Post;
 import com.example.welog.model.User;
 import com.example.welog.repository.PostRepository;
+import com.example.welog.repository.TagRepository;
 import com.example.welog.repository.UserRepository;
 import com.example.welog.service.impl.UserDetailsImpl;
+import com.example.welog.trending.TrendingEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -42,9 +53,27 @@ class PostServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TagRepository tagRepository;
+
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PostSlugIndex postSlugIndex;
+
+    @Mock
+    private TrendingEngine trendingEngine;
+
+    @Mock
+    private PostLikeCounter postLikeCounter;
+
+    @Spy
+    private PostDetailCache postDetailCache = new PostDetailCache(100, Duration.ofMinutes(1));
+
     @InjectMocks
     private PostService postService;
 
@@ -92,7 +121,6 @@ class PostServiceTest {
     @Test
     void getPost_ValidRequest_ReturnsPost() {
         // Arrange
-        when(postRepository.existsById(anyLong())).thenReturn(true);
         when(postRepository.findById(anyLong())).thenReturn(Optional.of(post));
 
         // Act
@@ -103,10 +131,56 @@ class PostServiceTest {
         assertEquals(post.getId(), result.getId());
     }
 
+    @Test
+    void getPost_WithUnflushedLikes_AddsThemToStoredCount() {
+        // Arrange
+        post.setLikeCount(5);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postLikeCounter.pending(1L)).thenReturn(2L);
+
+        // Act
+        PostResponseDto result = postService.getPost(1L);
+
+        // Assert
+        assertEquals(7, result.getLikeCount());
+    }
+
+    @Test
+    void getPost_CalledTwice_LoadsFromRepositoryOnce() {
+        // Arrange
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+
+        // Act
+        postService.getPost(1L);
+        PostResponseDto result = postService.getPost(1L);
+
+        // Assert
+        assertEquals(post.getId(), result.getId());
+        verify(postRepository, times(1)).findById(1L);
+        assertEquals(1, postDetailCache.stats().getHitCount());
+    }
+
+    @Test
+    void getPost_AfterUpdate_ReloadsFromRepository() {
+        // Arrange
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postRepository.save(any(Post.class))).thenReturn(post);
+        postService.getPost(1L);
+
+        // Act
+        postService.updatePost(1L, postPatchDto);
+        postDetailCache.onPostChanged(new PostChangedEvent(1L, PostChangedEvent.Type.UPDATED));
+        PostResponseDto result = postService.getPost(1L);
+
+        // Assert
+        assertEquals("Updated Title", result.getTitle());
+        verify(eventPublisher).publishEvent(any(PostChangedEvent.class));
+    }
+
     @Test
     void getPost_NotFound_ThrowsException() {
         // Arrange
-        when(postRepository.existsById(anyLong())).thenReturn(false);
+        when(postRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> postService.getPost(1L));
@@ -127,6 +201,31 @@ class PostServiceTest {
         assertEquals(post.getId(), result.getId());
     }
 
+    @Test
+    void createPost_WhenSlugTaken_AppendsSuffix() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(UserDetailsImpl.build(user));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(postRepository.existsBySlugIncludingDeleted("test-post")).thenReturn(true);
+        when(postRepository.existsBySlugIncludingDeleted("test-post-2")).thenReturn(true);
+        when(postRepository.save(any(Post.class))).thenReturn(post);
+
+        // Act
+        postService.createPost(postCreateDto);
+
+        // Assert
+        verify(postRepository).save(argThat(saved -> "test-post-3".equals(saved.getSlug())));
+    }
+
+    @Test
+    void getPostIdBySlug_WhenNotExists_ThrowsResourceNotFoundException() {
+        // Arrange
+        when(postSlugIndex.resolve("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> postService.getPostIdBySlug("missing"));
+    }
+
     @Test
     void updatePost_ValidRequest_ReturnsPost() {
         // Arrange
@@ -152,6 +251,38 @@ class PostServiceTest {
         assertDoesNotThrow(() -> postService.deletePost(1L));
     }
 
+    @Test
+    void deletePost_TaggedPost_DecrementsTagCounts() {
+        // Arrange
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postRepository.findTagIdsByPostId(1L)).thenReturn(List.of(3L, 4L));
+
+        // Act
+        postService.deletePost(1L);
+
+        // Assert
+        verify(tagRepository).adjustPostCounts(List.of(3L, 4L), -1);
+        verify(eventPublisher).publishEvent(any(PostTagsChangedEvent.class));
+    }
+
+    @Test
+    void getTrendingPosts_KeepsRankingOrder() {
+        // Arrange
+        PostCardDto first = new PostCardDto();
+        first.setId(7L);
+        PostCardDto second = new PostCardDto();
+        second.setId(3L);
+        when(trendingEngine.topPostIds(10)).thenReturn(List.of(7L, 3L));
+        when(postRepository.findPostCardsByIdIn(List.of(7L, 3L))).thenReturn(List.of(second, first));
+
+        // Act
+        List<PostCardDto> trending = postService.getTrendingPosts(10);
+
+        // Assert
+        assertEquals(List.of(7L, 3L), trending.stream().map(PostCardDto::getId).toList());
+    }
+
     @Test
     void deletePost_NotFound_ThrowsException() {
         // Arrange
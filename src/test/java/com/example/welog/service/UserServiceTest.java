@@ -4,6 +4,8 @@ import com.example.welog.dto.UserPatchDto;
 import com.example.welog.dto.UserResponseDto;
 import com.example.welog.exception.ResourceNotFoundException;
 import com.example.welog.model.User;
+import com.example.welog.event.UserProfileChangedEvent;
+import com.example.welog.repository.PostRepository;
 import com.example.welog.repository.UserRepository;
 import com.example.welog.utils.ResponseDtoMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +36,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -82,6 +91,7 @@ class UserServiceTest {
         when(userRepository.existsById(1L)).thenReturn(true);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
+        when(postRepository.findIdsShowingUser(1L)).thenReturn(List.of(10L, 11L));
 
         UserPatchDto patchDto = new UserPatchDto();
         patchDto.setName("Updated Name");
@@ -89,6 +99,8 @@ class UserServiceTest {
         UserResponseDto result = userService.update(1L, patchDto);
 
         assertThat(result.getName()).isEqualTo("Updated Name");
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserProfileChangedEvent changed
+                && changed.getUserId().equals(1L) && changed.getPostIds().equals(List.of(10L, 11L))));
     }
 
     @Test
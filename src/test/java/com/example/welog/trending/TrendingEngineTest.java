@@ -0,0 +1,106 @@
+package com.example.welog.trending;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingEngineTest {
+    private static final Duration HALF_LIFE = Duration.ofHours(1);
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    @Test
+    void record_RecentEngagementOutranksOlderEngagement() {
+        TrendingEngine engine = engine(10, null);
+        engine.record(1L, 3);               // three likes two hours ago...
+        now.addAndGet(HALF_LIFE.toMillis() * 2);
+        engine.record(2L, 1);               // ...are worth less than one like now
+        engine.record(3L, 0.5);
+
+        assertThat(engine.topPostIds(10)).containsExactly(2L, 1L, 3L);
+        assertThat(engine.score(1L)).isCloseTo(0.75, within(1e-9));
+    }
+
+    @Test
+    void takeBack_DropsPostBelowOutsiders() {
+        TrendingEngine engine = engine(2, null);
+        engine.record(1L, 5);
+        engine.record(2L, 4);
+        engine.record(3L, 3);               // not in the top 2
+
+        engine.takeBack(1L, 5, at(now.get()));
+
+        assertThat(engine.topPostIds(10)).containsExactly(2L, 3L);
+        assertThat(engine.score(1L)).isZero();
+    }
+
+    @Test
+    void takeBack_OldLike_TakesBackOnlyWhatItStillContributes() {
+        TrendingEngine engine = engine(10, null);
+        long likedAt = now.get();
+        engine.record(1L, 1);               // a like two hours ago, worth 0.25 now...
+        now.addAndGet(HALF_LIFE.toMillis() * 2);
+        engine.record(1L, 1);
+
+        engine.takeBack(1L, 1, at(likedAt)); // ...is unliked: the recent like keeps its full weight
+
+        assertThat(engine.score(1L)).isCloseTo(1, within(1e-9));
+        assertThat(engine.topPostIds(10)).containsExactly(1L);
+    }
+
+    @Test
+    void remove_DeletedPostLeavesTheRanking() {
+        TrendingEngine engine = engine(10, null);
+        engine.record(1L, 2);
+        engine.record(2L, 1);
+
+        engine.remove(1L);
+
+        assertThat(engine.topPostIds(10)).containsExactly(2L);
+    }
+
+    @Test
+    void record_ManyHalfLivesLater_RescalesWithoutLosingOrder() {
+        TrendingEngine engine = engine(10, null);
+        engine.record(1L, 1);
+        now.addAndGet(HALF_LIFE.toMillis() * 100);
+        engine.record(2L, 2);
+        engine.record(3L, 1);
+
+        assertThat(engine.topPostIds(10)).containsExactly(2L, 3L);  // post 1 decayed away
+        assertThat(engine.score(2L)).isCloseTo(2, within(1e-9));
+    }
+
+    @Test
+    void snapshot_RestoresScoresAfterRestart(@TempDir Path directory) {
+        String file = directory.resolve("trending.snapshot").toString();
+        TrendingEngine engine = engine(10, file);
+        engine.record(1L, 4);
+        engine.record(2L, 2);
+        engine.snapshot();
+
+        now.addAndGet(HALF_LIFE.toMillis());
+        TrendingEngine restarted = engine(10, file);
+        restarted.restore();
+
+        assertThat(restarted.topPostIds(10)).containsExactly(1L, 2L);
+        assertThat(restarted.score(1L)).isCloseTo(2, within(1e-9));
+    }
+
+    private static OffsetDateTime at(long millis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private TrendingEngine engine(int topK, String snapshotFile) {
+        return new TrendingEngine(HALF_LIFE, topK, snapshotFile, now::get);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.welog.utils;
+
+import com.example.welog.dto.CursorPageDto;
+import com.example.welog.exception.BadRequestException;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilsTest {
+
+    @Test
+    void encodeKeyset_RoundTripsCreatedAtAndId() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2024, 5, 1, 10, 30, 15, 123456000, ZoneOffset.ofHours(7));
+
+        CursorUtils.KeysetCursor cursor = CursorUtils.decodeKeyset(CursorUtils.encodeKeyset(createdAt, 42L));
+
+        assertThat(cursor.getCreatedAt().toInstant()).isEqualTo(createdAt.toInstant());
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void decodeKeyset_MalformedCursor_ThrowsBadRequest() {
+        assertThatThrownBy(() -> CursorUtils.decodeKeyset("not-a-cursor"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorUtils.decodeId(CursorUtils.encodeKeyset(OffsetDateTime.now(), 1L)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void toPage_ExtraRowPresent_TrimsItAndReturnsNextCursor() {
+        CursorPageDto<String> page = CursorUtils.toPage(List.of(1L, 2L, 3L), 2, CursorUtils::encodeId, String::valueOf);
+
+        assertThat(page.getItems()).containsExactly("1", "2");
+        assertThat(CursorUtils.decodeId(page.getNextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    void toPage_LastPage_HasNoNextCursor() {
+        CursorPageDto<String> page = CursorUtils.toPage(List.of(1L, 2L), 2, CursorUtils::encodeId, String::valueOf);
+
+        assertThat(page.getItems()).containsExactly("1", "2");
+        assertThat(page.getNextCursor()).isNull();
+    }
+}